@@ -0,0 +1,14 @@
+package com.example;
+
+/**
+ * Anything that takes turns: the player and the monsters
+ */
+public interface Actor {
+    int NORMAL_SPEED = 10;
+
+    /**
+     * How quickly the actor gets to act again; twice NORMAL_SPEED acts
+     * twice per player turn, half of it every other turn
+     */
+    int getSpeed();
+}
@@ -0,0 +1,143 @@
+package com.example;
+
+import java.util.Arrays;
+
+/**
+ * Actors waiting for their next action, earliest first. Time is counted in
+ * ticks, and an actor at normal speed acts every TURN ticks, so each turn
+ * only the actors that are due are looked at and slow ones are skipped
+ * until their time comes.
+ *
+ * Actors due at the same moment act in the order they were scheduled,
+ * except that the player goes after every monster due then. Each entry
+ * gets a ticket; the owner can tell a stale entry, for an actor that has
+ * since been removed or rescheduled, by comparing tickets when it comes up.
+ */
+public class ActorScheduler {
+    public static final int TURN = 100;
+
+    private Actor[] actors = new Actor[64];
+    private long[] times = new long[64];
+    private long[] tickets = new long[64];
+    private int size;
+    private long nextTicket;
+
+    /**
+     * Ticks between two actions of an actor at its current speed. Never
+     * less than one, so however fast a monster is the player's turn still
+     * comes round.
+     */
+    public static int delay(Actor actor) {
+        return Math.max(1, TURN * Actor.NORMAL_SPEED / Math.max(1, actor.getSpeed()));
+    }
+
+    /**
+     * Queue an actor to act at a time
+     *
+     * @return the ticket of the new entry
+     */
+    public long schedule(Actor actor, long time) {
+        if (size == actors.length) {
+            actors = Arrays.copyOf(actors, size * 2);
+            times = Arrays.copyOf(times, size * 2);
+            tickets = Arrays.copyOf(tickets, size * 2);
+        }
+        long ticket = nextTicket++;
+        int i = size++;
+        // Sift up
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!precedes(actor, time, ticket, actors[parent], times[parent], tickets[parent])) {
+                break;
+            }
+            set(i, actors[parent], times[parent], tickets[parent]);
+            i = parent;
+        }
+        set(i, actor, time, ticket);
+        return ticket;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The next actor due, or null if there is none
+     */
+    public Actor peek() {
+        return size == 0 ? null : actors[0];
+    }
+
+    public long peekTime() {
+        return times[0];
+    }
+
+    public long peekTicket() {
+        return tickets[0];
+    }
+
+    /**
+     * Take the next actor due off the queue
+     */
+    public Actor poll() {
+        if (size == 0) {
+            return null;
+        }
+        Actor first = actors[0];
+        size--;
+        Actor actor = actors[size];
+        long time = times[size];
+        long ticket = tickets[size];
+        actors[size] = null;
+        // Sift the last entry down from the top
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && precedes(actors[child + 1], times[child + 1], tickets[child + 1],
+                                             actors[child], times[child], tickets[child])) {
+                child++;
+            }
+            if (!precedes(actors[child], times[child], tickets[child], actor, time, ticket)) {
+                break;
+            }
+            set(i, actors[child], times[child], tickets[child]);
+            i = child;
+        }
+        if (size > 0) {
+            set(i, actor, time, ticket);
+        }
+        return first;
+    }
+
+    /**
+     * Forget every entry
+     */
+    public void clear() {
+        Arrays.fill(actors, 0, size, null);
+        size = 0;
+    }
+
+    private static boolean precedes(Actor actor, long time, long ticket, Actor other, long otherTime, long otherTicket) {
+        if (time != otherTime) {
+            return time < otherTime;
+        }
+        boolean player = actor instanceof Player;
+        if (player != other instanceof Player) {
+            return !player;
+        }
+        return ticket < otherTicket;
+    }
+
+    private void set(int i, Actor actor, long time, long ticket) {
+        actors[i] = actor;
+        times[i] = time;
+        tickets[i] = ticket;
+    }
+}
@@ -0,0 +1,172 @@
+package com.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary level format (.rlv).
+ *
+ * Layout, big-endian:
+ * <pre>
+ *   magic "RGLV" | version u16 | flags u16 | level i32 | width i32 | height i32 | floor count i32
+ *   feature count u16 | features (type u8, x i32, y i32)...
+ *   tiles: width * height packed {@link TileGrid} cells
+ *   CRC32 of the tiles as u32, if FLAG_CHECKSUM is set
+ * </pre>
+ */
+public final class BinaryLevelFormat {
+    public static final String EXTENSION = ".rlv";
+    public static final int VERSION = 1;
+    public static final int FLAG_CHECKSUM = 1;
+
+    static final byte[] MAGIC = {'R', 'G', 'L', 'V'};
+
+    private static final int FEATURE_STAIRS_UP = 1;
+    private static final int FEATURE_STAIRS_DOWN = 2;
+    private static final int FEATURE_PLAYER_START = 3;
+
+    private static final int HEADER_SIZE = 4 + 2 + 2 + 4 + 4 + 4 + 4 + 2;
+    private static final int FEATURE_SIZE = 1 + 4 + 4;
+
+    private BinaryLevelFormat() {
+    }
+
+    /**
+     * Whether the buffer, from its position, starts with the binary level magic
+     */
+    public static boolean isBinary(ByteBuffer in) {
+        if (in.remaining() < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (in.get(in.position() + i) != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static LevelData read(ByteBuffer in) throws IOException {
+        if (!isBinary(in) || in.remaining() < HEADER_SIZE) {
+            throw new IOException("Not a binary level file");
+        }
+        in.position(in.position() + MAGIC.length);
+
+        int version = in.getShort() & 0xFFFF;
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary level version " + version);
+        }
+        int flags = in.getShort() & 0xFFFF;
+        int levelNumber = in.getInt();
+        int width = in.getInt();
+        int height = in.getInt();
+        int floorCount = in.getInt();
+        int featureCount = in.getShort() & 0xFFFF;
+
+        if (width <= 0 || height <= 0 || (long) width * height > Integer.MAX_VALUE) {
+            throw new IOException("Invalid level size " + width + "x" + height);
+        }
+
+        int[] stairsUp = null;
+        int[] stairsDown = null;
+        int[] playerStart = null;
+        require(in, (long) featureCount * FEATURE_SIZE, "features");
+        for (int i = 0; i < featureCount; i++) {
+            int type = in.get();
+            int[] position = {in.getInt(), in.getInt()};
+            boolean known = type == FEATURE_STAIRS_UP || type == FEATURE_STAIRS_DOWN || type == FEATURE_PLAYER_START;
+            // The checksum only covers the tiles, so a bad position would otherwise load
+            if (known && (position[0] < 0 || position[0] >= width || position[1] < 0 || position[1] >= height)) {
+                throw new IOException("Feature outside level");
+            }
+            switch (type) {
+                case FEATURE_STAIRS_UP: stairsUp = position; break;
+                case FEATURE_STAIRS_DOWN: stairsDown = position; break;
+                case FEATURE_PLAYER_START: playerStart = position; break;
+                default: break; // Unknown features are skipped
+            }
+        }
+
+        require(in, (long) width * height, "tiles");
+        byte[] cells = new byte[width * height];
+        in.get(cells);
+
+        if ((flags & FLAG_CHECKSUM) != 0) {
+            require(in, 4, "checksum");
+            long expected = in.getInt() & 0xFFFFFFFFL;
+            CRC32 crc = new CRC32();
+            crc.update(cells);
+            if (crc.getValue() != expected) {
+                throw new IOException("Level checksum mismatch");
+            }
+        }
+
+        return new LevelData(levelNumber, new FlatTileGrid(width, height, cells),
+                             stairsUp, stairsDown, playerStart, floorCount);
+    }
+
+    /**
+     * Encode a level. Occupancy flags are not part of the format and are dropped.
+     */
+    public static ByteBuffer encode(LevelData level, boolean withChecksum) {
+        FlatTileGrid grid = level.getGrid();
+        byte[] cells = grid.cells().clone();
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] &= ~TileGrid.OCCUPANCY_MASK;
+        }
+
+        int featureCount = (level.getStairsUp() != null ? 1 : 0)
+                         + (level.getStairsDown() != null ? 1 : 0)
+                         + (level.getPlayerStart() != null ? 1 : 0);
+
+        ByteBuffer out = ByteBuffer.allocate(HEADER_SIZE + featureCount * FEATURE_SIZE
+                                             + cells.length + (withChecksum ? 4 : 0));
+        out.put(MAGIC);
+        out.putShort((short) VERSION);
+        out.putShort((short) (withChecksum ? FLAG_CHECKSUM : 0));
+        out.putInt(level.getLevelNumber());
+        out.putInt(grid.getWidth());
+        out.putInt(grid.getHeight());
+        out.putInt(level.getFloorCount());
+        out.putShort((short) featureCount);
+        putFeature(out, FEATURE_STAIRS_UP, level.getStairsUp());
+        putFeature(out, FEATURE_STAIRS_DOWN, level.getStairsDown());
+        putFeature(out, FEATURE_PLAYER_START, level.getPlayerStart());
+        out.put(cells);
+
+        if (withChecksum) {
+            CRC32 crc = new CRC32();
+            crc.update(cells);
+            out.putInt((int) crc.getValue());
+        }
+
+        out.flip();
+        return out;
+    }
+
+    /**
+     * Fail with an IOException rather than a BufferUnderflowException when a file is cut short
+     */
+    private static void require(ByteBuffer in, long bytes, String what) throws IOException {
+        if (in.remaining() < bytes) {
+            throw new IOException("Truncated binary level file: " + what + " need " + bytes
+                                  + " bytes, " + in.remaining() + " left");
+        }
+    }
+
+    public static void write(LevelData level, Path file) throws IOException {
+        // The buffer is allocated to the exact encoded size
+        Files.write(file, encode(level, true).array());
+    }
+
+    private static void putFeature(ByteBuffer out, int type, int[] position) {
+        if (position != null) {
+            out.put((byte) type);
+            out.putInt(position[0]);
+            out.putInt(position[1]);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example;
+
+/**
+ * A fixed-size window onto the map that follows the player
+ */
+public class Camera {
+    private final int viewWidth;
+    private final int viewHeight;
+    private int originX, originY;   // Map coordinates of the top-left visible tile
+    private int width, height;      // Visible size, never larger than the map
+
+    public Camera(int viewWidth, int viewHeight) {
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+    }
+
+    public int getOriginX() { return originX; }
+    public int getOriginY() { return originY; }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+
+    /**
+     * Center the view on a target, clamped so it never leaves the map
+     */
+    public void centerOn(int targetX, int targetY, int mapWidth, int mapHeight) {
+        width = Math.min(viewWidth, mapWidth);
+        height = Math.min(viewHeight, mapHeight);
+        originX = clamp(targetX - width / 2, 0, mapWidth - width);
+        originY = clamp(targetY - height / 2, 0, mapHeight - height);
+    }
+
+    public boolean contains(int x, int y) {
+        return x >= originX && y >= originY && x < originX + width && y < originY + height;
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
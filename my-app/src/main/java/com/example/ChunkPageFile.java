@@ -0,0 +1,146 @@
+package com.example;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Evicted chunks on disk, one fixed-size page per chunk.
+ *
+ * Pages are addressed by the chunk's position on a square spiral around the
+ * origin chunk, so no in-memory index is needed and the (sparse) file only
+ * grows with how far from the start the player has been.
+ *
+ * Page layout: present flag u8 | monster data length u16 | chunk cells | monsters
+ *
+ * A chunk too crowded for its page keeps the monsters that do not fit in
+ * memory until the chunk is read back, so none are lost.
+ */
+public class ChunkPageFile implements Closeable {
+    public static final int PAGE_SIZE = 8192;
+
+    private static final int HEADER_SIZE = 3;
+    private static final int MAX_MONSTER_BYTES = PAGE_SIZE - HEADER_SIZE - ChunkedTileGrid.CHUNK_CELLS;
+
+    private final RandomAccessFile file;
+    private final byte[] page = new byte[PAGE_SIZE];
+    private final Map<Long, List<Monster>> overflow = new HashMap<>();   // By spiral index
+
+    public ChunkPageFile(File path) throws IOException {
+        this.file = new RandomAccessFile(path, "rw");
+    }
+
+    /**
+     * A page file in a temporary file that is removed when the game exits
+     */
+    public static ChunkPageFile createTemp() throws IOException {
+        File path = File.createTempFile("rogue-chunks", ".pages");
+        path.deleteOnExit();
+        return new ChunkPageFile(path);
+    }
+
+    /**
+     * Read a chunk's page into {@code cells} and {@code monsters}.
+     *
+     * @param dx chunk x relative to the origin chunk
+     * @param dy chunk y relative to the origin chunk
+     * @return false if the chunk was never written
+     */
+    public boolean read(int dx, int dy, byte[] cells, List<Monster> monsters) throws IOException {
+        long index = spiralIndex(dx, dy);
+        long offset = index * PAGE_SIZE;
+        if (offset + PAGE_SIZE > file.length()) {
+            return false;
+        }
+        file.seek(offset);
+        file.readFully(page);
+        if (page[0] == 0) {
+            return false;
+        }
+
+        int monsterBytes = ((page[1] & 0xFF) << 8) | (page[2] & 0xFF);
+        System.arraycopy(page, HEADER_SIZE, cells, 0, ChunkedTileGrid.CHUNK_CELLS);
+        DataInputStream in = new DataInputStream(
+            new ByteArrayInputStream(page, HEADER_SIZE + ChunkedTileGrid.CHUNK_CELLS, monsterBytes));
+        monsters.addAll(LevelSnapshot.readMonsters(in));
+        List<Monster> extra = overflow.remove(index);
+        if (extra != null) {
+            monsters.addAll(extra);
+        }
+        return true;
+    }
+
+    public void write(int dx, int dy, byte[] cells, List<Monster> monsters) throws IOException {
+        long index = spiralIndex(dx, dy);
+        List<Monster> kept = new ArrayList<>(monsters);
+        byte[] monsterData = encodeMonsters(kept);
+        if (kept.size() < monsters.size()) {
+            List<Monster> extra = new ArrayList<>(monsters.subList(kept.size(), monsters.size()));
+            overflow.put(index, extra);
+            System.out.println("🔥 Chunk (" + dx + "," + dy + ") is too crowded for its page; keeping "
+                               + extra.size() + " monsters in memory");
+        } else {
+            overflow.remove(index);
+        }
+
+        page[0] = 1;
+        page[1] = (byte) (monsterData.length >> 8);
+        page[2] = (byte) monsterData.length;
+        System.arraycopy(cells, 0, page, HEADER_SIZE, ChunkedTileGrid.CHUNK_CELLS);
+        System.arraycopy(monsterData, 0, page, HEADER_SIZE + ChunkedTileGrid.CHUNK_CELLS, monsterData.length);
+
+        file.seek(index * PAGE_SIZE);
+        file.write(page);
+    }
+
+    /**
+     * Encode as many of the monsters as fit in a page, removing the rest from the list
+     */
+    private static byte[] encodeMonsters(List<Monster> kept) throws IOException {
+        while (true) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            LevelSnapshot.writeMonsters(new DataOutputStream(bytes), kept);
+            if (bytes.size() <= MAX_MONSTER_BYTES) {
+                return bytes.toByteArray();
+            }
+            kept.remove(kept.size() - 1);
+        }
+    }
+
+    /**
+     * Position of a chunk on a square spiral around the origin: 0 for the
+     * origin, then ring r (the 8r chunks at distance r) after the (2r-1)^2
+     * chunks inside it
+     */
+    static long spiralIndex(int dx, int dy) {
+        int r = Math.max(Math.abs(dx), Math.abs(dy));
+        if (r == 0) {
+            return 0;
+        }
+        long base = (long) (2 * r - 1) * (2 * r - 1);
+        if (dy == -r) {
+            return base + (dx + r);              // Top edge, left to right
+        }
+        if (dx == r) {
+            return base + 2L * r + (dy + r);     // Right edge, top to bottom
+        }
+        if (dy == r) {
+            return base + 4L * r + (r - dx);     // Bottom edge, right to left
+        }
+        return base + 6L * r + (r - dy);         // Left edge, bottom to top
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
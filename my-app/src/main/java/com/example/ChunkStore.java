@@ -0,0 +1,197 @@
+package com.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Resident chunks of an endless floor. Chunks within the active radius of
+ * the player are kept in memory along with their monsters; the least
+ * recently used ones beyond that are written to a {@link ChunkPageFile} and
+ * read back, or generated the first time, when they are next touched.
+ */
+public class ChunkStore implements ChunkedTileGrid.ChunkSource {
+    public static final int DEFAULT_ACTIVE_RADIUS = 2;
+
+    private final long seed;
+    private final int originChunk;
+    private final int activeRadius;
+    private final int maxResident;
+    private final ChunkPageFile pages;
+    private final Map<Long, byte[]> resident = new LinkedHashMap<>(64, 0.75f, true);
+    private final List<Monster> arrivals = new ArrayList<>();   // From chunks loaded since the last update
+    private ChunkedTileGrid grid;
+
+    /**
+     * @param originChunk chunk coordinate (on both axes) of the starting chunk
+     * @param activeRadius chunks kept resident in each direction around the player's chunk
+     */
+    public ChunkStore(long seed, int originChunk, int activeRadius, ChunkPageFile pages) {
+        this.seed = seed;
+        this.originChunk = originChunk;
+        this.activeRadius = activeRadius;
+        int side = 2 * activeRadius + 1;
+        this.maxResident = side * side + 2 * side;   // The active square plus one row of slack
+        this.pages = pages;
+    }
+
+    void attach(ChunkedTileGrid grid) {
+        this.grid = grid;
+    }
+
+    @Override
+    public byte[] chunkCells(int chunkX, int chunkY) {
+        long key = ChunkedTileGrid.key(chunkX, chunkY);
+        byte[] cells = resident.get(key);
+        if (cells == null) {
+            cells = load(chunkX, chunkY);
+            resident.put(key, cells);
+        }
+        return cells;
+    }
+
+    public int residentCount() {
+        return resident.size();
+    }
+
+    /**
+     * Make the chunks around the player resident, hand monsters of newly
+     * loaded chunks to the manager and evict chunks beyond the limit. Only
+     * call between turns; evicted monsters leave the manager.
+     */
+    public void update(int playerX, int playerY, MonsterManager monsters) {
+        int centerX = playerX >> ChunkedTileGrid.CHUNK_SHIFT;
+        int centerY = playerY >> ChunkedTileGrid.CHUNK_SHIFT;
+        for (int cy = centerY - activeRadius; cy <= centerY + activeRadius; cy++) {
+            for (int cx = centerX - activeRadius; cx <= centerX + activeRadius; cx++) {
+                chunkCells(cx, cy);
+            }
+        }
+
+        if (!arrivals.isEmpty()) {
+            monsters.addAll(arrivals);
+            arrivals.clear();
+        }
+
+        // Least recently used first; never evict the active square. Victims
+        // are picked before evicting, since removing their monsters touches the grid
+        List<Long> victims = new ArrayList<>();
+        int excess = resident.size() - maxResident;
+        for (Long key : resident.keySet()) {
+            if (victims.size() >= excess) {
+                break;
+            }
+            int cx = (int) (key >> 32);
+            int cy = (int) (long) key;
+            if (Math.abs(cx - centerX) > activeRadius || Math.abs(cy - centerY) > activeRadius) {
+                victims.add(key);
+            }
+        }
+        for (Long key : victims) {
+            int cx = (int) (key >> 32);
+            int cy = (int) (long) key;
+            evict(cx, cy, resident.get(key), monsters);
+            resident.remove(key);
+        }
+    }
+
+    private void evict(int chunkX, int chunkY, byte[] cells, MonsterManager monsters) {
+        int minX = chunkX << ChunkedTileGrid.CHUNK_SHIFT;
+        int minY = chunkY << ChunkedTileGrid.CHUNK_SHIFT;
+        List<Monster> parked = monsters.removeWithin(minX, minY,
+            minX + ChunkedTileGrid.CHUNK_SIZE, minY + ChunkedTileGrid.CHUNK_SIZE);
+
+        // Occupancy is rebuilt from the monsters when the chunk comes back
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] &= ~TileGrid.OCCUPANCY_MASK;
+        }
+        try {
+            pages.write(chunkX - originChunk, chunkY - originChunk, cells, parked);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot page out chunk " + chunkX + "," + chunkY, e);
+        }
+        grid.forget(chunkX, chunkY);
+    }
+
+    private byte[] load(int chunkX, int chunkY) {
+        byte[] cells = new byte[ChunkedTileGrid.CHUNK_CELLS];
+        List<Monster> loaded = new ArrayList<>();
+        try {
+            if (!pages.read(chunkX - originChunk, chunkY - originChunk, cells, loaded)) {
+                generate(chunkX, chunkY, cells, loaded);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot page in chunk " + chunkX + "," + chunkY, e);
+        }
+
+        int minX = chunkX << ChunkedTileGrid.CHUNK_SHIFT;
+        int minY = chunkY << ChunkedTileGrid.CHUNK_SHIFT;
+        for (Monster monster : loaded) {
+            int local = ((monster.getY() - minY) << ChunkedTileGrid.CHUNK_SHIFT) | (monster.getX() - minX);
+            cells[local] |= TileGrid.MONSTER;
+        }
+        arrivals.addAll(loaded);
+        return cells;
+    }
+
+    /**
+     * A walled room filling the chunk, with a doorway in the middle of every
+     * side so neighbouring chunks always connect, scattered pillars, loot and
+     * monsters that get tougher further from the start
+     */
+    private void generate(int chunkX, int chunkY, byte[] cells, List<Monster> monsters) {
+        int size = ChunkedTileGrid.CHUNK_SIZE;
+        int half = size / 2;
+        SplittableRandom rand = new SplittableRandom(GameRandom.mix(seed ^ (chunkX * 0x9E3779B97F4A7C15L) ^ (chunkY * 0xC2B2AE3D27D4EB4FL)));
+
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                boolean border = x == 0 || y == 0 || x == size - 1 || y == size - 1;
+                boolean corridor = Math.abs(x - half) <= 2 || Math.abs(y - half) <= 2;
+                boolean wall = border ? !corridor : !corridor && rand.nextInt(100) < 6;
+                cells[(y << ChunkedTileGrid.CHUNK_SHIFT) | x] = (byte) (wall ? TileGrid.WALL : TileGrid.FLOOR);
+            }
+        }
+
+        int loot = 2 + rand.nextInt(3);
+        for (int i = 0; i < loot; i++) {
+            int local = randomFloor(rand, cells);
+            if (local >= 0) {
+                int item = rand.nextBoolean() ? TileGrid.ITEM : TileGrid.GOLD;
+                cells[local] = (byte) (cells[local] | (item << TileGrid.ITEM_SHIFT));
+            }
+        }
+
+        int distance = Math.max(Math.abs(chunkX - originChunk), Math.abs(chunkY - originChunk));
+        int depth = 1 + distance / 2;
+        int count = 1 + rand.nextInt(3);
+        int minX = chunkX << ChunkedTileGrid.CHUNK_SHIFT;
+        int minY = chunkY << ChunkedTileGrid.CHUNK_SHIFT;
+        for (int i = 0; i < count; i++) {
+            int local = randomFloor(rand, cells);
+            // Keep the player's starting cell clear
+            if (local < 0 || (distance == 0 && local == (half << ChunkedTileGrid.CHUNK_SHIFT) + half)) {
+                continue;
+            }
+            int x = minX + (local & ChunkedTileGrid.CHUNK_MASK);
+            int y = minY + (local >> ChunkedTileGrid.CHUNK_SHIFT);
+            monsters.add(MonsterFactory.createForLevel(depth, x, y, rand));
+            cells[local] |= TileGrid.MONSTER;
+        }
+    }
+
+    private static int randomFloor(RandomGenerator rand, byte[] cells) {
+        for (int attempt = 0; attempt < 20; attempt++) {
+            int local = rand.nextInt(cells.length);
+            if (cells[local] == TileGrid.FLOOR) {
+                return local;
+            }
+        }
+        return -1;
+    }
+}
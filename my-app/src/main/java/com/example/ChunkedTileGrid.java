@@ -0,0 +1,84 @@
+package com.example;
+
+/**
+ * A tile grid split into square chunks that are fetched on demand, for
+ * worlds too large to hold in one array. Cells use the same packed layout
+ * as {@link TileGrid}; each chunk is a row-major CHUNK_SIZE x CHUNK_SIZE
+ * byte array.
+ */
+public class ChunkedTileGrid extends TileGrid {
+    public static final int CHUNK_SHIFT = 6;
+    public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    public static final int CHUNK_CELLS = CHUNK_SIZE * CHUNK_SIZE;
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * Supplies the cells of a chunk, loading or generating it if it is not resident
+     */
+    public interface ChunkSource {
+        byte[] chunkCells(int chunkX, int chunkY);
+    }
+
+    private final ChunkSource source;
+
+    // Most lookups in a row hit the same chunk
+    private long lastKey = Long.MIN_VALUE;
+    private byte[] lastCells;
+
+    public ChunkedTileGrid(int widthInChunks, int heightInChunks, ChunkSource source) {
+        super(widthInChunks << CHUNK_SHIFT, heightInChunks << CHUNK_SHIFT);
+        this.source = source;
+    }
+
+    static long key(int chunkX, int chunkY) {
+        return ((long) chunkX << 32) | (chunkY & 0xFFFFFFFFL);
+    }
+
+    private byte[] chunk(int x, int y) {
+        int chunkX = x >> CHUNK_SHIFT;
+        int chunkY = y >> CHUNK_SHIFT;
+        long key = key(chunkX, chunkY);
+        if (key != lastKey) {
+            lastCells = source.chunkCells(chunkX, chunkY);
+            lastKey = key;
+        }
+        return lastCells;
+    }
+
+    /**
+     * Drop any cached reference to a chunk that is being evicted
+     */
+    void forget(int chunkX, int chunkY) {
+        if (lastKey == key(chunkX, chunkY)) {
+            lastKey = Long.MIN_VALUE;
+            lastCells = null;
+        }
+    }
+
+    @Override
+    protected int cellAt(int x, int y) {
+        return chunk(x, y)[((y & CHUNK_MASK) << CHUNK_SHIFT) | (x & CHUNK_MASK)];
+    }
+
+    @Override
+    protected void putCell(int x, int y, int cell) {
+        chunk(x, y)[((y & CHUNK_MASK) << CHUNK_SHIFT) | (x & CHUNK_MASK)] = (byte) cell;
+    }
+
+    @Override
+    public void copyGlyphs(int x, int y, char[] out, int offset, int length) {
+        int rowStart = (y & CHUNK_MASK) << CHUNK_SHIFT;
+        while (length > 0) {
+            // Copy up to the end of the current chunk, then move to the next one
+            byte[] cells = chunk(x, y);
+            int localX = x & CHUNK_MASK;
+            int run = Math.min(length, CHUNK_SIZE - localX);
+            for (int n = 0; n < run; n++) {
+                out[offset + n] = GLYPHS[cells[rowStart + localX + n] & (TERRAIN_MASK | ITEM_MASK)];
+            }
+            x += run;
+            offset += run;
+            length -= run;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example;
+
+/**
+ * A player command sent from the UI to the game loop
+ */
+public final class Command {
+    public enum Type {
+        MOVE,
+        ATTACK,
+        USE_ITEM,
+        EQUIP_WEAPON,
+        EQUIP_ARMOR,
+        UNEQUIP_WEAPON,
+        UNEQUIP_ARMOR,
+        DROP_ITEM
+    }
+
+    private final Type type;
+    private final char direction;  // 'W', 'A', 'S' or 'D' for MOVE
+    private final boolean repeat;  // A MOVE from key auto-repeat rather than a press
+    private final int itemIndex;   // Inventory index for USE_ITEM, EQUIP_* and DROP_ITEM; -1 if the inventory was empty
+    private final Item item;       // The item the UI showed at itemIndex, or null if not known
+
+    private Command(Type type, char direction, int itemIndex) {
+        this(type, direction, false, itemIndex, null);
+    }
+
+    private Command(Type type, char direction, int itemIndex, Item item) {
+        this(type, direction, false, itemIndex, item);
+    }
+
+    private Command(Type type, char direction, boolean repeat, int itemIndex, Item item) {
+        this.type = type;
+        this.direction = direction;
+        this.repeat = repeat;
+        this.itemIndex = itemIndex;
+        this.item = item;
+    }
+
+    public static Command move(char direction) {
+        return new Command(Type.MOVE, direction, -1);
+    }
+
+    /**
+     * A move generated while its key is held down; dropped if still queued when the key is released
+     */
+    public static Command repeatedMove(char direction) {
+        return new Command(Type.MOVE, direction, true, -1, null);
+    }
+
+    public static Command attack() {
+        return new Command(Type.ATTACK, ' ', -1);
+    }
+
+    public static Command useItem(int itemIndex) {
+        return new Command(Type.USE_ITEM, ' ', itemIndex);
+    }
+
+    /**
+     * Use the item at an index, only if it is still the given one when the command runs
+     */
+    public static Command useItem(int itemIndex, Item item) {
+        return new Command(Type.USE_ITEM, ' ', itemIndex, item);
+    }
+
+    public static Command equipWeapon(int itemIndex, Item item) {
+        return new Command(Type.EQUIP_WEAPON, ' ', itemIndex, item);
+    }
+
+    public static Command equipArmor(int itemIndex, Item item) {
+        return new Command(Type.EQUIP_ARMOR, ' ', itemIndex, item);
+    }
+
+    public static Command unequipWeapon() {
+        return new Command(Type.UNEQUIP_WEAPON, ' ', -1);
+    }
+
+    public static Command unequipArmor() {
+        return new Command(Type.UNEQUIP_ARMOR, ' ', -1);
+    }
+
+    public static Command dropItem(int itemIndex, Item item) {
+        return new Command(Type.DROP_ITEM, ' ', itemIndex, item);
+    }
+
+    public Type getType() { return type; }
+    public char getDirection() { return direction; }
+    public boolean isRepeat() { return repeat; }
+    public int getItemIndex() { return itemIndex; }
+    public Item getItem() { return item; }
+}
@@ -1,126 +1,182 @@
 package com.example;
 
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.nio.file.Path;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 public class Dungeon {
-    private char[][] map;
+    private TileGrid grid;
+    private FlatTileGrid levelGrid;   // The same map when it is held in one array; null on endless floors
     private int width, height;
     private int levelNumber;
     private int[] stairsUp;
     private int[] stairsDown;
+    private int[] playerStart;
+    private int floorCount;
     private MonsterManager monsterManager;
-    private Random random = new Random();
     private boolean isLastLevel = false;
+    private PathPlanner pathPlanner;
 
     public Dungeon(String levelFile) {
-        monsterManager = new MonsterManager();
+        monsterManager = newMonsterManager();
         loadLevel(levelFile);
     }
 
-    private void loadLevel(String levelFile) {
-        List<String> lines = new ArrayList<>();
-
-        try (BufferedReader br = new BufferedReader(new FileReader(levelFile))) {
-            String line = br.readLine();
-            
-            // Read first line as level number
-            if (line != null && line.startsWith("LEVEL ")) {
-                levelNumber = Integer.parseInt(line.replace("LEVEL ", "").trim());
-            } else {
-                System.out.println("❌ Error: Level file does not start with 'LEVEL X'!");
-                return;
-            }
+    /**
+     * Load a level listed in the {@link LevelManifest}
+     */
+    public Dungeon(LevelManifest.Entry level) {
+        monsterManager = newMonsterManager();
+        isLastLevel = level.isLast();
+        loadLevel(level);
+    }
 
-            // Read rest of the map
-            while ((line = br.readLine()) != null) {
-                if (!line.trim().isEmpty()) {
-                    lines.add(line);
-                }
-            }
+    /**
+     * Build a dungeon from an already decoded level
+     */
+    public Dungeon(LevelData level) {
+        monsterManager = newMonsterManager();
+        setUp(level);
+    }
+
+    /**
+     * Rebuild a dungeon exactly as it was saved, without rolling new monsters
+     */
+    Dungeon(LevelData level, List<Monster> monsters, boolean isLastLevel) {
+        monsterManager = newMonsterManager();
+        grid = levelGrid = level.getGrid();
+        width = grid.getWidth();
+        height = grid.getHeight();
+        levelNumber = level.getLevelNumber();
+        stairsUp = level.getStairsUp();
+        stairsDown = level.getStairsDown();
+        playerStart = level.getPlayerStart();
+        floorCount = level.getFloorCount();
+        this.isLastLevel = isLastLevel;
+        monsterManager.setGrid(grid);
+        monsterManager.restore(monsters);
+    }
+
+    /**
+     * A dungeon over a map that is not held in one array, such as an
+     * endless floor, starting without monsters
+     */
+    protected Dungeon(TileGrid grid, int levelNumber, int[] playerStart) {
+        monsterManager = newMonsterManager();
+        this.grid = grid;
+        width = grid.getWidth();
+        height = grid.getHeight();
+        this.levelNumber = levelNumber;
+        this.playerStart = playerStart;
+        monsterManager.setGrid(grid);
+    }
+
+    private MonsterManager newMonsterManager() {
+        MonsterManager manager = new MonsterManager();
+        // Monsters hunting from afar plan their way; the planner is only built if one does
+        manager.setPathPlanner(this::getPathPlanner);
+        return manager;
+    }
+
+    private void loadLevel(String levelFile) {
+        LevelData level;
+        try {
+            level = LevelLoader.load(Path.of(levelFile));
         } catch (IOException e) {
             System.out.println("❌ Error loading level: " + e.getMessage());
             return;
         }
 
-        if (lines.isEmpty()) {
-            System.out.println("❌ Error: Level file is empty!");
+        System.out.println("✅ Loading Level " + level.getLevelNumber() + " from: " + levelFile);
+        setUp(level);
+    }
+
+    private void loadLevel(LevelManifest.Entry entry) {
+        LevelData level;
+        try {
+            level = entry.load();
+        } catch (IOException e) {
+            System.out.println("❌ Error loading level: " + e.getMessage());
             return;
         }
 
-        width = lines.get(0).length();
-        height = lines.size();
+        System.out.println("✅ Loading Level " + level.getLevelNumber() + " from: " + entry.getLocation());
+        setUp(level);
+    }
 
+    private void setUp(LevelData level) {
         // Completely replace old map with new level
-        map = new char[height][width];
+        grid = levelGrid = level.getGrid();
+        width = grid.getWidth();
+        height = grid.getHeight();
+        levelNumber = level.getLevelNumber();
+        stairsUp = level.getStairsUp();
+        stairsDown = level.getStairsDown();
+        playerStart = level.getPlayerStart();
+        floorCount = level.getFloorCount();
+        monsterManager.setGrid(grid);
 
-        System.out.println("✅ Loading Level " + levelNumber + " from: " + levelFile);
-        for (int y = 0; y < height; y++) {
-            map[y] = lines.get(y).toCharArray();
-        }
-
-        findStairs();
+        System.out.println("✅ Stairs detected: " +
+            (stairsDown != null ? "DOWN(" + stairsDown[0] + "," + stairsDown[1] + ") " : "No Down Stairs ") +
+            (stairsUp != null ? "UP(" + stairsUp[0] + "," + stairsUp[1] + ")" : "No Up Stairs"));
         
         // Populate the dungeon with monsters - more monsters on deeper levels
         int baseMonsterCount = 1 + (levelNumber * 1);
+        // Levels may be built on a background thread, so each has its own stream
+        SplittableRandom random = GameRandom.forLevel(GameRandom.Stream.MONSTERS, levelNumber);
         int monsterCount = baseMonsterCount + random.nextInt(3);
-        monsterManager.populateDungeon(this, monsterCount);
+        monsterManager.populateDungeon(this, monsterCount, random);
         
         System.out.println("✅ Level " + levelNumber + " Loaded Successfully with " + 
                           monsterManager.getAllMonsters().size() + " monsters");
+    }
 
-        File levelsDir = new File("levels");
-        File[] levelFiles = levelsDir.listFiles((dir, name) -> name.startsWith("level") && name.endsWith(".txt"));
-        if (levelFiles != null && levelNumber == levelFiles.length) {
-            isLastLevel = true;
-        }
+    /**
+     * The map and its features as level data; shares the live grid
+     */
+    LevelData toLevelData() {
+        return new LevelData(levelNumber, levelGrid, stairsUp, stairsDown, playerStart, floorCount);
     }
 
     public boolean isLastLevel() {
         return isLastLevel;
     }
 
-    private void findStairs() {
-        if (map == null) return;
-
-        stairsUp = null;
-        stairsDown = null;
-
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                if (map[y][x] == '>') {
-                    stairsDown = new int[]{x, y};
-                } else if (map[y][x] == '<') {
-                    stairsUp = new int[]{x, y};
-                }
-            }
-        }
+    public TileGrid getGrid() {
+        return grid;
+    }
 
-        System.out.println("✅ Stairs detected: " +
-            (stairsDown != null ? "DOWN(" + stairsDown[0] + "," + stairsDown[1] + ") " : "No Down Stairs ") +
-            (stairsUp != null ? "UP(" + stairsUp[0] + "," + stairsUp[1] + ")" : "No Up Stairs"));
+    /**
+     * The map as one array, for work that addresses cells by index; null on
+     * an endless floor
+     */
+    public FlatTileGrid getLevelGrid() {
+        return levelGrid;
+    }
+    
+    public int getWidth() {
+        return width;
     }
 
-    public char[][] getMap() {
-        return map;
+    public int getHeight() {
+        return height;
     }
     
-    public char[][] getMapWithMonsters() {
-        // Create a copy of the map so we don't modify the original
-        char[][] mapCopy = new char[height][width];
-        for (int y = 0; y < height; y++) {
-            System.arraycopy(map[y], 0, mapCopy[y], 0, width);
-        }
+    /**
+     * Copy the tiles visible through the camera into a frame and overlay the
+     * monsters inside it. The frame must be camera-sized.
+     */
+    public void renderView(Camera camera, char[][] frame) {
+        int originX = camera.getOriginX();
+        int originY = camera.getOriginY();
+        int viewWidth = camera.getWidth();
         
-        // Render monsters on the map copy
-        monsterManager.renderMonstersOnMap(mapCopy);
+        for (int row = 0; row < camera.getHeight(); row++) {
+            grid.copyGlyphs(originX, originY + row, frame[row], 0, viewWidth);
+        }
         
-        return mapCopy;
+        monsterManager.renderMonstersInView(camera, frame);
     }
 
     public int getLevelNumber() {
@@ -139,20 +195,27 @@ public class Dungeon {
         return monsterManager;
     }
 
+    /**
+     * Long-range paths across this level, for hunting monsters and travel.
+     * Set up on first use; null on endless floors, which are never held in one piece.
+     */
+    public PathPlanner getPathPlanner() {
+        if (pathPlanner == null && levelGrid != null) {
+            pathPlanner = new PathPlanner(levelGrid);
+        }
+        return pathPlanner;
+    }
+
     public int[] getPlayerStartPosition() {
-        if (map == null) return new int[]{1, 1};
+        if (grid == null) return new int[]{1, 1};
 
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                if (map[y][x] == 'P') {
-                    return new int[]{x, y};
-                }
-            }
+        if (playerStart != null) {
+            return new int[]{playerStart[0], playerStart[1]};
         }
 
         for (int y = 0; y < height; y++) {
             for (int x = 0; x < width; x++) {
-                if (map[y][x] == '.') {
+                if (grid.terrain(x, y) == TileGrid.FLOOR) {
                     return new int[]{x, y};
                 }
             }
@@ -163,7 +226,7 @@ public class Dungeon {
     
     // Process monster turns after player moves
     public void updateMonsters(Player player) {
-        monsterManager.updateMonsters(player, map);
+        monsterManager.updateMonsters(player, grid);
     }
     
     // Check if a monster is at coordinates
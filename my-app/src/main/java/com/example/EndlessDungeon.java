@@ -0,0 +1,46 @@
+package com.example;
+
+import java.io.IOException;
+
+/**
+ * Endless floor: a world of generated chunks paged in around the player and
+ * out to disk behind them, so memory use stays flat however far they walk.
+ * There are no stairs.
+ */
+public class EndlessDungeon extends Dungeon {
+    // Chunks per side; far more than anyone will walk
+    static final int WORLD_CHUNKS = 1 << 14;
+    static final int ORIGIN_CHUNK = WORLD_CHUNKS / 2;
+
+    private final ChunkStore chunks;
+
+    public EndlessDungeon(long seed) throws IOException {
+        this(new ChunkStore(seed, ORIGIN_CHUNK, ChunkStore.DEFAULT_ACTIVE_RADIUS, ChunkPageFile.createTemp()));
+    }
+
+    private EndlessDungeon(ChunkStore chunks) {
+        super(new ChunkedTileGrid(WORLD_CHUNKS, WORLD_CHUNKS, chunks), 1, startPosition());
+        this.chunks = chunks;
+        chunks.attach((ChunkedTileGrid) getGrid());
+
+        int[] start = startPosition();
+        chunks.update(start[0], start[1], getMonsterManager());
+        System.out.println("✅ Endless floor ready with " + chunks.residentCount() + " chunks around the start");
+    }
+
+    private static int[] startPosition() {
+        int center = (ORIGIN_CHUNK << ChunkedTileGrid.CHUNK_SHIFT) + ChunkedTileGrid.CHUNK_SIZE / 2;
+        return new int[]{center, center};
+    }
+
+    public ChunkStore getChunks() {
+        return chunks;
+    }
+
+    @Override
+    public void updateMonsters(Player player) {
+        // Page chunks in and out around the player before anything moves
+        chunks.update(player.getX(), player.getY(), getMonsterManager());
+        super.updateMonsters(player);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example;
+
+/**
+ * A level held in one flat row-major array, so cells can also be addressed
+ * by a single index. Loaded, generated and saved levels are all flat; only
+ * these offer {@link #index}, {@link #cells} and {@link #freeCells}.
+ */
+public class FlatTileGrid extends TileGrid {
+    private final byte[] cells;
+    private FreeCellIndex freeCells;   // Built on first use, then kept in step with every change
+
+    public FlatTileGrid(int width, int height) {
+        this(width, height, new byte[width * height]);
+    }
+
+    /**
+     * Wrap an existing packed cell array (row-major, width * height bytes)
+     */
+    FlatTileGrid(int width, int height, byte[] cells) {
+        super(width, height);
+        if (cells.length != width * height) {
+            throw new IllegalArgumentException("Expected " + (width * height) + " cells but got " + cells.length);
+        }
+        this.cells = cells;
+    }
+
+    /**
+     * Raw packed cells, for loaders and snapshots
+     */
+    byte[] cells() {
+        return cells;
+    }
+
+    public int index(int x, int y) {
+        return y * getWidth() + x;
+    }
+
+    public int xOf(int index) {
+        return index % getWidth();
+    }
+
+    public int yOf(int index) {
+        return index / getWidth();
+    }
+
+    @Override
+    protected int cellAt(int x, int y) {
+        return cells[y * getWidth() + x];
+    }
+
+    @Override
+    protected void putCell(int x, int y, int cell) {
+        int i = y * getWidth() + x;
+        cells[i] = (byte) cell;
+        if (freeCells != null) {
+            freeCells.set(i, isOpenCell(cell));
+        }
+    }
+
+    /**
+     * Index of every open floor cell (see {@link #isOpenFloor}), by {@link #index}
+     */
+    public FreeCellIndex freeCells() {
+        if (freeCells == null) {
+            FreeCellIndex index = new FreeCellIndex(cells.length);
+            for (int i = 0; i < cells.length; i++) {
+                if (isOpenCell(cells[i])) {
+                    index.add(i);
+                }
+            }
+            freeCells = index;
+        }
+        return freeCells;
+    }
+
+    @Override
+    public void copyGlyphs(int x, int y, char[] out, int offset, int length) {
+        int i = y * getWidth() + x;
+        for (int n = 0; n < length; n++) {
+            out[offset + n] = GLYPHS[cells[i + n] & (TERRAIN_MASK | ITEM_MASK)];
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example;
+
+import java.util.Arrays;
+
+/**
+ * Walking distance to a target (the player) for every cell in a square
+ * window around it, from one breadth-first search. Any number of monsters
+ * can then head for the target by stepping to a neighbour with a smaller
+ * distance, which is a constant-time lookup per monster and finds the way
+ * around walls.
+ *
+ * Moves are 8-way at uniform cost, like monster movement. The field is only
+ * rebuilt when the target changes cell or the terrain changes, and the
+ * window bounds the work on large or endless maps.
+ */
+public class FlowField {
+    public static final int DEFAULT_RADIUS = 40;
+    public static final int UNREACHED = Integer.MAX_VALUE;
+
+    // Orthogonal steps first, so monsters prefer them on ties
+    static final int[] DX = {1, -1, 0, 0, 1, 1, -1, -1};
+    static final int[] DY = {0, 0, 1, -1, 1, -1, 1, -1};
+
+    private final int radius;
+    private final int side;
+    private final int[] distances;
+    private final int[] queue;
+
+    private TileGrid grid;
+    private int targetX, targetY;
+    private int originX, originY;
+    private int terrainRevision;
+
+    /**
+     * Index into DX and DY of a one-cell step
+     */
+    static int direction(int dx, int dy) {
+        for (int d = 0; d < DX.length; d++) {
+            if (DX[d] == dx && DY[d] == dy) {
+                return d;
+            }
+        }
+        throw new IllegalArgumentException("Not a step: " + dx + "," + dy);
+    }
+
+    public FlowField(int radius) {
+        this.radius = radius;
+        this.side = 2 * radius + 1;
+        this.distances = new int[side * side];
+        this.queue = new int[side * side];
+    }
+
+    /**
+     * Make the field lead to a target cell, searching again only if the
+     * target has moved or the map has changed since the last search
+     */
+    public void update(TileGrid grid, int targetX, int targetY) {
+        if (grid == this.grid && targetX == this.targetX && targetY == this.targetY
+            && grid.terrainRevision() == terrainRevision) {
+            return;
+        }
+        this.grid = grid;
+        this.targetX = targetX;
+        this.targetY = targetY;
+        this.originX = targetX - radius;
+        this.originY = targetY - radius;
+        this.terrainRevision = grid.terrainRevision();
+        search();
+    }
+
+    private void search() {
+        Arrays.fill(distances, UNREACHED);
+        int head = 0;
+        int tail = 0;
+        int start = radius * side + radius;
+        distances[start] = 0;
+        queue[tail++] = start;
+
+        while (head < tail) {
+            int local = queue[head++];
+            int localX = local % side;
+            int localY = local / side;
+            int next = distances[local] + 1;
+            for (int d = 0; d < DX.length; d++) {
+                int nx = localX + DX[d];
+                int ny = localY + DY[d];
+                if (nx < 0 || ny < 0 || nx >= side || ny >= side) {
+                    continue;
+                }
+                int neighbour = ny * side + nx;
+                if (distances[neighbour] == UNREACHED && grid.isWalkable(originX + nx, originY + ny)) {
+                    distances[neighbour] = next;
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+    }
+
+    /**
+     * Steps from a cell to the target, or UNREACHED if it is outside the
+     * window or walled off
+     */
+    public int distanceAt(int x, int y) {
+        int localX = x - originX;
+        int localY = y - originY;
+        if (grid == null || localX < 0 || localY < 0 || localX >= side || localY >= side) {
+            return UNREACHED;
+        }
+        return distances[localY * side + localX];
+    }
+
+    /**
+     * Direction (an index into DX and DY) of the best free step towards the
+     * target from a cell, or -1 if no free neighbour is closer
+     */
+    public int stepFrom(int x, int y) {
+        int best = distanceAt(x, y);
+        int bestDirection = -1;
+        for (int d = 0; d < DX.length; d++) {
+            int nx = x + DX[d];
+            int ny = y + DY[d];
+            int distance = distanceAt(nx, ny);
+            if (distance < best && grid.isOpenFloor(nx, ny)) {
+                best = distance;
+                bestDirection = d;
+            }
+        }
+        return bestDirection;
+    }
+}
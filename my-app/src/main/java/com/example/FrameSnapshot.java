@@ -0,0 +1,46 @@
+package com.example;
+
+import java.util.List;
+
+/**
+ * Immutable picture of the game published by the game loop for the UI to draw
+ */
+public final class FrameSnapshot {
+    private final char[][] tiles;
+    private final String statusText;
+    private final List<String> inventoryOptions;
+    private final InventorySnapshot inventory;
+    private final boolean gameOver;
+    private final String errorMessage;
+
+    public FrameSnapshot(char[][] tiles, String statusText, List<String> inventoryOptions,
+                         InventorySnapshot inventory, boolean gameOver, String errorMessage) {
+        this.tiles = tiles;
+        this.statusText = statusText;
+        this.inventoryOptions = List.copyOf(inventoryOptions);
+        this.inventory = inventory;
+        this.gameOver = gameOver;
+        this.errorMessage = errorMessage;
+    }
+
+    /**
+     * Snapshot that only reports a fatal error
+     */
+    public static FrameSnapshot error(String errorMessage) {
+        return new FrameSnapshot(new char[0][0], "", List.of(), null, false, errorMessage);
+    }
+
+    /**
+     * Visible tiles. Owned by the snapshot; callers must not modify them.
+     */
+    public char[][] getTiles() { return tiles; }
+    public String getStatusText() { return statusText; }
+    public List<String> getInventoryOptions() { return inventoryOptions; }
+    /**
+     * The player's stats and items, or null in an error snapshot
+     */
+    public InventorySnapshot getInventory() { return inventory; }
+    public boolean isGameOver() { return gameOver; }
+    public String getErrorMessage() { return errorMessage; }
+    public boolean hasError() { return errorMessage != null; }
+}
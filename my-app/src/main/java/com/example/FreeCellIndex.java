@@ -0,0 +1,75 @@
+package com.example;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Set of cell indices with O(1) add, remove, membership and uniform random
+ * pick. Members are kept densely packed in one array; removing one moves the
+ * last member into its slot.
+ */
+public class FreeCellIndex {
+    private final int[] members;
+    private final int[] slots;   // Slot of each cell in members, or -1
+    private int size;
+
+    /**
+     * @param capacity cells are numbered 0 to capacity - 1
+     */
+    public FreeCellIndex(int capacity) {
+        members = new int[capacity];
+        slots = new int[capacity];
+        Arrays.fill(slots, -1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int cell) {
+        return slots[cell] >= 0;
+    }
+
+    public boolean add(int cell) {
+        if (slots[cell] >= 0) {
+            return false;
+        }
+        slots[cell] = size;
+        members[size++] = cell;
+        return true;
+    }
+
+    public boolean remove(int cell) {
+        int slot = slots[cell];
+        if (slot < 0) {
+            return false;
+        }
+        int last = members[--size];
+        members[slot] = last;
+        slots[last] = slot;
+        slots[cell] = -1;
+        return true;
+    }
+
+    /**
+     * Add or remove a cell
+     */
+    public void set(int cell, boolean member) {
+        if (member) {
+            add(cell);
+        } else {
+            remove(cell);
+        }
+    }
+
+    /**
+     * A uniformly chosen member, or -1 if the set is empty
+     */
+    public int random(RandomGenerator random) {
+        return size == 0 ? -1 : members[random.nextInt(size)];
+    }
+}
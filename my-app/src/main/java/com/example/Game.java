@@ -0,0 +1,371 @@
+package com.example;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Game state and turn simulation. Owned by the game loop thread; the UI only
+ * sees the snapshots it produces.
+ */
+public class Game {
+    // Start preparing the level behind a staircase once the player is this close
+    private static final int PREFETCH_DISTANCE = 8;
+
+    private LevelManifest manifest;
+    private final LevelCache levelCache = new LevelCache();
+    private final LevelPrefetcher prefetcher =
+        new LevelPrefetcher(level -> manifest.get(level), levelCache::contains, LevelPrefetcher.DEFAULT_MAX_PREPARED);
+    private Dungeon dungeon;
+    private volatile Player player;
+    private final Camera camera;
+    private final boolean endless;
+    private String currentLevelFile;
+    private boolean gameOver;
+
+    public Game(int viewWidth, int viewHeight) {
+        this(viewWidth, viewHeight, false);
+    }
+
+    /**
+     * @param endless play one endless generated floor instead of the level files
+     */
+    public Game(int viewWidth, int viewHeight, boolean endless) {
+        camera = new Camera(viewWidth, viewHeight);
+        this.endless = endless;
+    }
+
+    /**
+     * The player, or null until {@link #start()} has run
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * Load the first level and create the player
+     */
+    public void start() {
+        System.out.println("🎲 Seed " + GameRandom.seed() + " (replay with -Drogue.seed=" + GameRandom.seed() + ")");
+        if (endless) {
+            startEndless();
+            return;
+        }
+
+        // Levels are packaged in the jar; a levels directory next to it overrides them
+        Path levelsDir = Path.of("levels");
+        System.out.println("🔍 Looking for levels in the jar and in: " + levelsDir.toAbsolutePath());
+        try {
+            manifest = LevelManifest.load(levelsDir);
+        } catch (IOException e) {
+            System.out.println("❌ Error reading levels: " + e.getMessage());
+            throw new IllegalStateException("Cannot read levels: " + e.getMessage());
+        }
+
+        LevelManifest.Entry firstEntry = manifest.get(1);
+        if (firstEntry == null) {
+            System.out.println("❌ Error: Level file not found in " + levelsDir.toAbsolutePath());
+            throw new IllegalStateException("Level file not found!");
+        }
+        Dungeon firstLevel = new Dungeon(firstEntry);
+        player = new Player(firstLevel.getPlayerStartPosition(), null, firstLevel);
+        enterDungeon(firstLevel, firstEntry.getLocation(), true);
+    }
+
+    private void startEndless() {
+        Dungeon world;
+        try {
+            world = new EndlessDungeon(GameRandom.get(GameRandom.Stream.WORLD).nextLong());
+        } catch (IOException e) {
+            System.out.println("❌ Error creating chunk page file: " + e.getMessage());
+            throw new IllegalStateException("Cannot create the endless floor: " + e.getMessage());
+        }
+        player = new Player(world.getPlayerStartPosition(), null, world);
+        // Chunks come with their own loot
+        enterDungeon(world, "endless floor", false);
+    }
+
+    /**
+     * Stop background level loading
+     */
+    public void shutdown() {
+        prefetcher.shutdown();
+    }
+
+    /**
+     * Apply one player command and let the monsters respond
+     */
+    public void handle(Command command) {
+        switch (command.getType()) {
+            case MOVE:
+                player.move(command.getDirection());
+                processTurn();
+                break;
+
+            case ATTACK:
+                Monster monster = dungeon.getMonsterAt(player.getX(), player.getY());
+                if (monster != null) {
+                    player.attackMonster(monster);
+                } else {
+                    System.out.println("No monster here to attack!");
+                }
+                processTurn();
+                break;
+
+            case USE_ITEM:
+                if (isStale(command)) {
+                    return;
+                }
+                if (command.getItemIndex() < 0 || player.getInventory().isEmpty()) {
+                    player.takeDamage(0); // Hack to update status message
+                    return;
+                }
+                player.useConsumable(command.getItemIndex());
+                processTurn();
+                break;
+
+            // Managing equipment does not take a turn
+            case EQUIP_WEAPON:
+                if (isStale(command)) {
+                    return;
+                }
+                player.equipWeapon(command.getItemIndex());
+                break;
+
+            case EQUIP_ARMOR:
+                if (isStale(command)) {
+                    return;
+                }
+                player.equipArmor(command.getItemIndex());
+                break;
+
+            case UNEQUIP_WEAPON:
+                player.unequipWeapon();
+                break;
+
+            case UNEQUIP_ARMOR:
+                player.unequipArmor();
+                break;
+
+            case DROP_ITEM:
+                if (isStale(command)) {
+                    return;
+                }
+                player.dropItem(command.getItemIndex());
+                break;
+        }
+    }
+
+    /**
+     * Whether an item command was queued against an inventory that has changed
+     * since, so its index now points at a different item or none
+     */
+    private boolean isStale(Command command) {
+        if (command.getItem() == null) {
+            return false;
+        }
+        int index = command.getItemIndex();
+        List<Item> inventory = player.getInventory();
+        if (index >= 0 && index < inventory.size() && inventory.get(index) == command.getItem()) {
+            return false;
+        }
+        System.out.println("🔄 Inventory changed; ignoring " + command.getType() + " for " + command.getItem().getName());
+        return true;
+    }
+
+    private void loadDungeon(LevelManifest.Entry entry) {
+        int levelNumber = entry.getNumber();
+        String levelFile = entry.getLocation();
+        // Keep the level being left exactly as it is for when the player comes back
+        levelCache.put(dungeon);
+
+        Dungeon next = levelCache.get(levelNumber);
+        boolean firstVisit = next == null;
+        if (firstVisit) {
+            next = prefetcher.take(levelNumber);
+        }
+        if (next == null) {
+            System.out.println("🔄 Loading dungeon from: " + levelFile);
+            next = new Dungeon(entry);
+        }
+        enterDungeon(next, levelFile, firstVisit);
+    }
+
+    private void enterDungeon(Dungeon next, String levelFile, boolean firstVisit) {
+        currentLevelFile = levelFile;
+        dungeon = next;
+
+        if (dungeon.getGrid() == null) {
+            System.out.println("❌ Error: Level file is empty or not loaded!");
+            throw new IllegalStateException("Error: Level file is empty or not loaded!");
+        }
+
+        int[] playerStart = dungeon.getPlayerStartPosition();
+        player.setMap(dungeon.getGrid());
+        player.setPosition(playerStart[0], playerStart[1]);
+
+        System.out.println("✅ Dungeon Loaded: " + levelFile);
+        if (manifest != null) {
+            prefetcher.prefetchAround(dungeon.getLevelNumber());
+        }
+
+        // Add some items to the dungeon for testing (in real game, these would be part of level files)
+        if (firstVisit) {
+            addRandomItemsToMap();
+        }
+    }
+
+    private void addRandomItemsToMap() {
+        // Add some random consumable items to the map
+        FlatTileGrid grid = dungeon.getLevelGrid();
+        SplittableRandom random = GameRandom.forLevel(GameRandom.Stream.WORLD, dungeon.getLevelNumber());
+        int itemCount = 3 + random.nextInt(3); // 3-5 items
+
+        for (int i = 0; i < itemCount; i++) {
+            placeRandomly(grid, TileGrid.ITEM, random);
+        }
+
+        // Add some gold as well
+        int goldCount = 2 + random.nextInt(3); // 2-4 gold piles
+
+        for (int i = 0; i < goldCount; i++) {
+            placeRandomly(grid, TileGrid.GOLD, random);
+        }
+    }
+
+    private void placeRandomly(FlatTileGrid grid, int item, SplittableRandom random) {
+        // Pick uniformly among the empty floor tiles
+        int cell = grid.freeCells().random(random);
+        if (cell >= 0) {
+            grid.setItem(grid.xOf(cell), grid.yOf(cell), item);
+        }
+    }
+
+    private void processTurn() {
+        player.updateStatus();
+
+        // Let monsters take their turn
+        dungeon.updateMonsters(player);
+
+        // Check if player stepped on stairs or died
+        checkForLevelChange();
+
+        // Make sure the level behind a nearby staircase is on its way
+        if (!gameOver) {
+            if (isNear(dungeon.getStairsDown())) {
+                prefetcher.prefetch(dungeon.getLevelNumber() + 1);
+            }
+            if (isNear(dungeon.getStairsUp())) {
+                prefetcher.prefetch(dungeon.getLevelNumber() - 1);
+            }
+        }
+    }
+
+    private boolean isNear(int[] stairs) {
+        return stairs != null
+            && Math.abs(player.getX() - stairs[0]) <= PREFETCH_DISTANCE
+            && Math.abs(player.getY() - stairs[1]) <= PREFETCH_DISTANCE;
+    }
+
+    private void checkForLevelChange() {
+        int[] stairsUp = dungeon.getStairsUp();
+        int[] stairsDown = dungeon.getStairsDown();
+
+        if (stairsDown != null && player.getX() == stairsDown[0] && player.getY() == stairsDown[1]) {
+            LevelManifest.Entry nextLevel = manifest.next(dungeon.getLevelNumber());
+            if (nextLevel != null) {
+                System.out.println("🔽 Moving to Level " + nextLevel.getNumber() + "...");
+                player.onLevelChange(nextLevel.getNumber());
+                loadDungeon(nextLevel);
+            } else if (dungeon.isLastLevel()) {
+                player.setStatusMessage("It's at the bottom of Dungeon.");
+            }
+        } else if (stairsUp != null && player.getX() == stairsUp[0] && player.getY() == stairsUp[1]) {
+            LevelManifest.Entry prevLevel = manifest.previous(dungeon.getLevelNumber());
+            if (prevLevel != null && prevLevel.getNumber() >= 1) {
+                System.out.println("🔼 Moving to Level " + prevLevel.getNumber() + "...");
+                player.onLevelChange(prevLevel.getNumber());
+                loadDungeon(prevLevel);
+            }
+        } else if (player.getHp() <= 0) {
+            System.out.println("💀 Game Over! You died.");
+            gameOver = true;
+        }
+    }
+
+    /**
+     * Capture the visible part of the map and the status text
+     */
+    public FrameSnapshot snapshot() {
+        int playerX = player.getX();
+        int playerY = player.getY();
+        camera.centerOn(playerX, playerY, dungeon.getWidth(), dungeon.getHeight());
+
+        // Only the tiles inside the camera are copied, with monsters overlaid
+        char[][] frame = new char[camera.getHeight()][camera.getWidth()];
+        dungeon.renderView(camera, frame);
+
+        // Render the player with '@'
+        if (camera.contains(playerX, playerY)) {
+            frame[playerY - camera.getOriginY()][playerX - camera.getOriginX()] = '@';
+        }
+
+        List<String> inventoryOptions = new ArrayList<>();
+        for (Item item : player.getInventory()) {
+            inventoryOptions.add(item.getName() + " - " + item.getDescription());
+        }
+
+        return new FrameSnapshot(frame, buildStatusText(), inventoryOptions, InventorySnapshot.of(player), gameOver, null);
+    }
+
+    private String buildStatusText() {
+        StringBuilder status = new StringBuilder();
+
+        // Display legend
+        status.append("\n=== MAP LEGEND ===\n");
+        status.append("@ = Player | # = Wall | . = Floor | > = Stairs Down | < = Stairs Up\n");
+        status.append("! = Item | $ = Gold | Letters = Monsters\n");
+
+        // Display player stats
+        status.append("\n=== PLAYER STATS ===\n");
+        status.append("FLOOR: ").append(dungeon.getLevelNumber())
+              .append(" | LEVEL: ").append(player.getLevel())
+              .append(" | HP: ").append(player.getHp())
+              .append(" | Hunger: ").append(String.format("%.2f", player.getHunger()))
+              .append(" | Strength: ").append(player.getStrength())
+              .append(" | Gold: ").append(player.getGold())
+              .append(" | Armor: ").append(player.getArmor()).append("\n");
+
+        // Display status message
+        status.append("▶ ").append(player.getStatusMessage()).append("\n");
+
+        // Display inventory summary
+        status.append("\n=== INVENTORY (").append(player.getInventory().size()).append(" items) ===\n");
+
+        // Show first few items
+        int maxDisplay = Math.min(3, player.getInventory().size());
+        for (int i = 0; i < maxDisplay; i++) {
+            status.append("- ").append(player.getInventory().get(i).getName()).append("\n");
+        }
+
+        if (player.getInventory().size() > maxDisplay) {
+            status.append("- ... (").append(player.getInventory().size() - maxDisplay).append(" more items)\n");
+        }
+
+        if (player.getInventory().isEmpty()) {
+            status.append("- No items\n");
+        }
+
+        // Display controls
+        status.append("\n=== CONTROLS ===\n");
+        status.append("WASD = Movement | F = Attack | I = Inventory\n");
+
+        return status.toString();
+    }
+}
@@ -0,0 +1,135 @@
+package com.example;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Runs the game on its own thread. Commands arrive through a bounded queue;
+ * everything queued is simulated back to back and published as one
+ * {@link FrameSnapshot}.
+ */
+public class GameLoop implements Runnable {
+    public static final int DEFAULT_MAX_QUEUED_TURNS = 4;
+
+    private final Game game;
+    private final BlockingQueue<Command> commands;
+    private final List<Command> batch = new ArrayList<>();
+    private final AtomicReference<FrameSnapshot> latest = new AtomicReference<>();
+    private final Consumer<FrameSnapshot> listener;
+    private final Thread thread;
+
+    /**
+     * For a UI that polls {@link #getLatestSnapshot()} instead of listening
+     */
+    public GameLoop(Game game, int maxQueuedTurns) {
+        this(game, null, maxQueuedTurns);
+    }
+
+    /**
+     * @param listener called on the game loop thread after each new snapshot
+     */
+    public GameLoop(Game game, Consumer<FrameSnapshot> listener) {
+        this(game, listener, DEFAULT_MAX_QUEUED_TURNS);
+    }
+
+    /**
+     * @param maxQueuedTurns commands beyond this many waiting turns are dropped,
+     *                       which keeps key auto-repeat from piling up
+     */
+    public GameLoop(Game game, Consumer<FrameSnapshot> listener, int maxQueuedTurns) {
+        this.game = game;
+        this.commands = new ArrayBlockingQueue<>(Math.max(1, maxQueuedTurns));
+        this.listener = listener;
+        this.thread = new Thread(this, "game-loop");
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    public void stop() {
+        thread.interrupt();
+    }
+
+    /**
+     * Queue a command. Safe to call from any thread.
+     *
+     * @return false if the queue was full and the command was dropped
+     */
+    public boolean submit(Command command) {
+        return commands.offer(command);
+    }
+
+    /**
+     * Drop auto-repeated moves in a direction that are still queued, when
+     * its key is released. Moves from separate presses are kept, however
+     * quickly they came.
+     */
+    public void cancelRepeatedMoves(char direction) {
+        commands.removeIf(c -> c.getType() == Command.Type.MOVE && c.isRepeat() && c.getDirection() == direction);
+    }
+
+    /**
+     * Most recently published snapshot, or null before the first level loads
+     */
+    public FrameSnapshot getLatestSnapshot() {
+        return latest.get();
+    }
+
+    @Override
+    public void run() {
+        try {
+            simulate();
+        } finally {
+            game.shutdown();
+        }
+    }
+
+    private void simulate() {
+        try {
+            game.start();
+        } catch (RuntimeException e) {
+            publish(FrameSnapshot.error(e.getMessage()));
+            return;
+        }
+        publish(game.snapshot());
+
+        while (!Thread.currentThread().isInterrupted() && !game.isGameOver()) {
+            try {
+                batch.add(commands.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            commands.drainTo(batch);
+
+            try {
+                // Only this thread touches the game; the UI sends commands and reads snapshots
+                for (Command command : batch) {
+                    game.handle(command);
+                    if (game.isGameOver()) {
+                        break;
+                    }
+                }
+                publish(game.snapshot());
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                publish(FrameSnapshot.error(e.getMessage()));
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void publish(FrameSnapshot snapshot) {
+        latest.set(snapshot);
+        if (listener != null) {
+            listener.accept(snapshot);
+        }
+    }
+}
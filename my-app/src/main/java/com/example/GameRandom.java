@@ -0,0 +1,84 @@
+package com.example;
+
+import java.util.SplittableRandom;
+
+/**
+ * Where every random number in a run comes from. One seed, from
+ * -Drogue.seed or else the clock, is split into an independent stream for
+ * each subsystem and for each level, so the same seed plays the same run
+ * and one system drawing more numbers never shifts another's.
+ *
+ * Streams are SplittableRandom: a draw neither locks nor allocates. They
+ * are not thread-safe, so the shared subsystem streams are for the game
+ * thread. Work done elsewhere, such as a level prepared in the background,
+ * takes a stream of its own from {@link #forLevel}. Parallel workers seed
+ * theirs from a fixed key with {@link #mix} (LevelGenerator keys on each
+ * node of its tree), never by splitting a shared stream, so the result
+ * does not depend on which thread ran first.
+ */
+public final class GameRandom {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * The subsystems with a stream each
+     */
+    public enum Stream {
+        COMBAT,     // Attack rolls of the player and the monsters
+        LOOT,       // Items, gold and drops
+        MONSTERS,   // Monster counts, stats and spawn cells
+        WORLD       // Map features: item placement, the endless floor
+    }
+
+    private static final SplittableRandom[] streams = new SplittableRandom[Stream.values().length];
+    private static long seed;
+
+    static {
+        reseed(Long.getLong("rogue.seed", System.nanoTime()));
+    }
+
+    private GameRandom() {
+    }
+
+    /**
+     * Start every stream over from a seed
+     */
+    public static synchronized void reseed(long newSeed) {
+        seed = newSeed;
+        for (Stream stream : Stream.values()) {
+            streams[stream.ordinal()] = new SplittableRandom(streamSeed(stream));
+        }
+    }
+
+    public static long seed() {
+        return seed;
+    }
+
+    /**
+     * The shared stream of a subsystem; game thread only
+     */
+    public static SplittableRandom get(Stream stream) {
+        return streams[stream.ordinal()];
+    }
+
+    /**
+     * A new stream for one level of a subsystem. It depends only on the
+     * seed and the level, so it does not matter which thread builds the
+     * level or in what order levels are visited.
+     */
+    public static SplittableRandom forLevel(Stream stream, int level) {
+        return new SplittableRandom(mix(streamSeed(stream) + level * GOLDEN_GAMMA));
+    }
+
+    private static long streamSeed(Stream stream) {
+        return mix(seed ^ mix((stream.ordinal() + 1) * GOLDEN_GAMMA));
+    }
+
+    /**
+     * SplitMix64 finalizer, to turn related seeds into unrelated ones
+     */
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
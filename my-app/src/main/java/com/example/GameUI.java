@@ -1,13 +1,205 @@
 package com.example;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Console front end. Draws the dungeon with ANSI escape codes, writing only
+ * the cells that changed since the previous frame in one write per turn.
+ */
 public class GameUI {
+    private static final String ESC = "\u001b[";
+
+    private final PrintStream out;
+    private final StringBuilder buffer = new StringBuilder(4096);
+
+    private char[][] lastFrame;
+    private int frameWidth;
+    private int frameHeight;
+    private String lastStatus;
+    private int cursorX, cursorY;   // Where the terminal cursor is after the last write
+    private int currentSlot;        // Palette slot of the active terminal color
+
+    public GameUI() {
+        this(System.out);
+    }
+
+    public GameUI(PrintStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Play in the terminal until the player quits or dies
+     */
+    public void play(Game game) {
+        GameLoop gameLoop = new GameLoop(game, this::onSnapshot);
+        boolean rawMode = setRawMode(true);
+        try {
+            gameLoop.start();
+            readCommands(System.in, gameLoop);
+        } finally {
+            gameLoop.stop();
+            if (rawMode) {
+                setRawMode(false);
+            }
+            out.print(ESC + "0m\n");
+            out.flush();
+        }
+    }
+
+    private void readCommands(InputStream in, GameLoop gameLoop) {
+        try {
+            int c;
+            while ((c = in.read()) != -1) {
+                switch (Character.toUpperCase((char) c)) {
+                    case 'W': case 'A': case 'S': case 'D':
+                        gameLoop.submit(Command.move(Character.toUpperCase((char) c)));
+                        break;
+                    case 'F':
+                        gameLoop.submit(Command.attack());
+                        break;
+                    case '1': case '2': case '3': case '4': case '5':
+                    case '6': case '7': case '8': case '9':
+                        gameLoop.submit(Command.useItem(c - '1'));
+                        break;
+                    case '0':
+                        gameLoop.submit(Command.useItem(9));
+                        break;
+                    case 'Q':
+                        return;
+                    default:
+                        break;
+                }
+            }
+        } catch (IOException e) {
+            // System.out goes to the log or nowhere in terminal mode, so tell the player directly
+            out.print(ESC + "0m\r\n❌ Error reading input: " + e.getMessage() + "\r\n");
+            out.flush();
+        }
+    }
+
+    /**
+     * Called on the game loop thread for every published snapshot
+     */
+    private void onSnapshot(FrameSnapshot snapshot) {
+        if (snapshot.hasError()) {
+            out.println("❌ " + snapshot.getErrorMessage());
+            setRawMode(false);
+            System.exit(1);
+        }
+
+        render(snapshot);
+
+        if (snapshot.isGameOver()) {
+            out.print(ESC + "0m\r\n💀 Game Over! You died.\r\n");
+            out.flush();
+            setRawMode(false);
+            System.exit(0);
+        }
+    }
+
+    /**
+     * Draw a snapshot, sending only what changed since the previous one
+     */
+    public void render(FrameSnapshot snapshot) {
+        char[][] frame = snapshot.getTiles();
+        int height = frame.length;
+        int width = height == 0 ? 0 : frame[0].length;
+        buffer.setLength(0);
+
+        if (lastFrame == null || width != frameWidth || height != frameHeight) {
+            // Size changed: clear the screen and draw everything
+            lastFrame = new char[height][width];
+            frameWidth = width;
+            frameHeight = height;
+            lastStatus = null;
+            buffer.append(ESC).append("2J");
+            currentSlot = -1;
+            for (int y = 0; y < height; y++) {
+                moveCursor(0, y);
+                for (int x = 0; x < width; x++) {
+                    lastFrame[y][x] = frame[y][x];
+                    appendCell(frame[y][x]);
+                }
+            }
+        } else {
+            for (int y = 0; y < height; y++) {
+                char[] row = frame[y];
+                char[] previous = lastFrame[y];
+                for (int x = 0; x < width; x++) {
+                    if (row[x] != previous[x]) {
+                        previous[x] = row[x];
+                        if (cursorX != x || cursorY != y) {
+                            moveCursor(x, y);
+                        }
+                        appendCell(row[x]);
+                    }
+                }
+            }
+        }
+
+        String status = snapshot.getStatusText();
+        if (!status.equals(lastStatus)) {
+            moveCursor(0, height);
+            buffer.append(ESC).append("0m").append(ESC).append("J");
+            buffer.append(status.replace("\n", "\r\n"));
+            buffer.append("1-9,0 = Use item | Q = Quit\r\n");
+            currentSlot = -1;
+            cursorX = -1;   // Unknown after free-form text
+            lastStatus = status;
+        }
+
+        if (buffer.length() > 0) {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            out.write(bytes, 0, bytes.length);
+            out.flush();
+        }
+    }
+
+    private void moveCursor(int x, int y) {
+        buffer.append(ESC).append(y + 1).append(';').append(x + 1).append('H');
+        cursorX = x;
+        cursorY = y;
+    }
+
+    private void appendCell(char tile) {
+        int slot = TilePalette.slotFor(tile);
+        if (slot != currentSlot) {
+            buffer.append(ESC).append(TilePalette.ansiColorOf(slot)).append('m');
+            currentSlot = slot;
+        }
+        buffer.append(tile);
+        cursorX++;
+    }
+
+    /**
+     * Switch the controlling terminal to unbuffered, no-echo input and back
+     */
+    private static boolean setRawMode(boolean raw) {
+        String settings = raw ? "-icanon -echo min 1" : "icanon echo";
+        try {
+            Process stty = new ProcessBuilder("sh", "-c", "stty " + settings + " < /dev/tty 2> /dev/null")
+                .inheritIO()
+                .start();
+            return stty.waitFor() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
 
     public void printMap(char[][] map) {
-        System.out.println("\n=== Dungeon Map ===");
+        buffer.setLength(0);
+        buffer.append("\n=== Dungeon Map ===\n");
         for (char[] row : map) {
-            System.out.println(new String(row)); // ✅ Correctly prints the map
+            buffer.append(row).append('\n');
         }
-        System.out.println("===================\n");
+        buffer.append("===================\n");
+        out.println(buffer);
     }
 
     public void printStats(int hp, double hunger) {
@@ -0,0 +1,93 @@
+package com.example;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable copy of the player's stats and belongings, taken on the game
+ * loop thread for the inventory window to draw
+ */
+public final class InventorySnapshot {
+
+    /**
+     * One item as the window shows it
+     */
+    public static final class Entry {
+        private final String name;
+        private final String type;
+        private final String description;
+        private final boolean consumable;
+        private final int effectValue;
+        private final Item item;   // For checking the inventory has not changed; not read off the game thread
+
+        Entry(Item item) {
+            this.item = item;
+            this.name = item.getName();
+            this.type = item.getType();
+            this.description = item.getDescription();
+            this.consumable = item.isConsumable();
+            this.effectValue = item.getEffectValue();
+        }
+
+        public String getName() { return name; }
+        public String getType() { return type; }
+        public String getDescription() { return description; }
+        public boolean isConsumable() { return consumable; }
+        public int getEffectValue() { return effectValue; }
+
+        /**
+         * The item this entry was copied from, to send back with commands
+         */
+        public Item getItem() { return item; }
+    }
+
+    private final int hp, maxHp;
+    private final double hunger, maxHunger;
+    private final int strength, armor, level, gold;
+    private final int maxSize;
+    private final List<Entry> items;
+    private final Entry weapon;        // Null if nothing is equipped
+    private final Entry armorItem;
+    private final String statusMessage;
+
+    private InventorySnapshot(Player player) {
+        hp = player.getHp();
+        maxHp = player.getMaxHp();
+        hunger = player.getHunger();
+        maxHunger = player.getMaxHunger();
+        strength = player.getStrength();
+        armor = player.getArmor();
+        level = player.getLevel();
+        gold = player.getGold();
+        maxSize = player.getInventoryMaxSize();
+        List<Entry> entries = new ArrayList<>();
+        for (Item item : player.getInventory()) {
+            entries.add(new Entry(item));
+        }
+        items = List.copyOf(entries);
+        weapon = player.getEquippedWeapon() == null ? null : new Entry(player.getEquippedWeapon());
+        armorItem = player.getEquippedArmor() == null ? null : new Entry(player.getEquippedArmor());
+        statusMessage = player.getStatusMessage();
+    }
+
+    /**
+     * Copy the player's state; call on the game loop thread
+     */
+    public static InventorySnapshot of(Player player) {
+        return new InventorySnapshot(player);
+    }
+
+    public int getHp() { return hp; }
+    public int getMaxHp() { return maxHp; }
+    public double getHunger() { return hunger; }
+    public double getMaxHunger() { return maxHunger; }
+    public int getStrength() { return strength; }
+    public int getArmor() { return armor; }
+    public int getLevel() { return level; }
+    public int getGold() { return gold; }
+    public int getMaxSize() { return maxSize; }
+    public List<Entry> getItems() { return items; }
+    public Entry getWeapon() { return weapon; }
+    public Entry getArmorItem() { return armorItem; }
+    public String getStatusMessage() { return statusMessage; }
+}
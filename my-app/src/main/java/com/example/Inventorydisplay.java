@@ -8,17 +8,21 @@ import javax.swing.border.TitledBorder;
 import java.util.List;
 
 /**
- * A window that displays the player's inventory and allows item management
+ * A window that displays the player's inventory and allows item management.
+ * It draws the latest snapshot from the game loop and sends its actions back
+ * as commands, so it never touches the live player.
  */
 public class Inventorydisplay extends JFrame {
-    private Player player;
+    private final GameLoop gameLoop;
+    private InventorySnapshot inventory;
     private JPanel inventoryPanel;
     private JLabel statusLabel;
     private JPanel equippedPanel;
     private JPanel statsPanel;
     
-    public Inventorydisplay(Player player) {
-        this.player = player;
+    public Inventorydisplay(GameLoop gameLoop, InventorySnapshot inventory) {
+        this.gameLoop = gameLoop;
+        this.inventory = inventory;
         
         setTitle("Inventory - Dungeon Game");
         setSize(500, 600);
@@ -115,39 +119,51 @@ public class Inventorydisplay extends JFrame {
         
         // Health
         statsGrid.add(new JLabel("HP:"));
-        statsGrid.add(new JLabel(player.getHp() + "/" + player.getMaxHp()));
+        statsGrid.add(new JLabel(inventory.getHp() + "/" + inventory.getMaxHp()));
         
         // Hunger
         statsGrid.add(new JLabel("Hunger:"));
-        statsGrid.add(new JLabel(String.format("%.1f/%.1f", player.getHunger(), player.getMaxHunger())));
+        statsGrid.add(new JLabel(String.format("%.1f/%.1f", inventory.getHunger(), inventory.getMaxHunger())));
         
         // Strength
         statsGrid.add(new JLabel("Strength:"));
-        statsGrid.add(new JLabel(String.valueOf(player.getStrength())));
+        statsGrid.add(new JLabel(String.valueOf(inventory.getStrength())));
         
         // Armor
         statsGrid.add(new JLabel("Armor:"));
-        statsGrid.add(new JLabel(String.valueOf(player.getArmor())));
+        statsGrid.add(new JLabel(String.valueOf(inventory.getArmor())));
         
         // Level
         statsGrid.add(new JLabel("Level:"));
-        statsGrid.add(new JLabel(String.valueOf(player.getLevel())));
+        statsGrid.add(new JLabel(String.valueOf(inventory.getLevel())));
         
         // Gold
         statsGrid.add(new JLabel("Gold:"));
-        statsGrid.add(new JLabel(String.valueOf(player.getGold())));
+        statsGrid.add(new JLabel(String.valueOf(inventory.getGold())));
         
         panel.add(statsGrid, BorderLayout.CENTER);
         
         // Inventory capacity
-        JLabel capacityLabel = new JLabel("Inventory: " + player.getInventory().size() + 
-                                         "/" + player.getInventoryMaxSize() + " items");
+        JLabel capacityLabel = new JLabel("Inventory: " + inventory.getItems().size() + 
+                                         "/" + inventory.getMaxSize() + " items");
         capacityLabel.setBorder(new EmptyBorder(5, 5, 5, 5));
         panel.add(capacityLabel, BorderLayout.SOUTH);
         
         return panel;
     }
     
+    /**
+     * Show a newer snapshot from the game loop. Called on the event dispatch thread.
+     */
+    public void showSnapshot(InventorySnapshot snapshot) {
+        if (snapshot == null || snapshot == inventory) {
+            return;
+        }
+        inventory = snapshot;
+        statusLabel.setText(snapshot.getStatusMessage());
+        updateDisplay();
+    }
+    
     /**
      * Update the entire display
      */
@@ -157,6 +173,15 @@ public class Inventorydisplay extends JFrame {
         updateEquippedPanel();
     }
     
+    /**
+     * Send an inventory action to the game loop; the window refreshes when its result is published
+     */
+    private void performAction(Command command) {
+        if (!gameLoop.submit(command)) {
+            statusLabel.setText("Busy - try again in a moment");
+        }
+    }
+    
     /**
      * Update just the stats panel
      */
@@ -175,17 +200,17 @@ public class Inventorydisplay extends JFrame {
     private void updateInventoryPanel() {
         inventoryPanel.removeAll();
         
-        List<Item> inventory = player.getInventory();
+        List<InventorySnapshot.Entry> items = inventory.getItems();
         
-        if (inventory.isEmpty()) {
+        if (items.isEmpty()) {
             JLabel emptyLabel = new JLabel("Your inventory is empty");
             emptyLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
             emptyLabel.setBorder(new EmptyBorder(20, 0, 0, 0));
             inventoryPanel.add(emptyLabel);
         } else {
             // Add each inventory item with action buttons
-            for (int i = 0; i < inventory.size(); i++) {
-                inventoryPanel.add(createItemPanel(inventory.get(i), i));
+            for (int i = 0; i < items.size(); i++) {
+                inventoryPanel.add(createItemPanel(items.get(i), i));
             }
         }
         
@@ -199,18 +224,18 @@ public class Inventorydisplay extends JFrame {
     private void updateEquippedPanel() {
         equippedPanel.removeAll();
         
-        if (player.getEquippedWeapon() == null && player.getEquippedArmor() == null) {
+        if (inventory.getWeapon() == null && inventory.getArmorItem() == null) {
             JLabel emptyLabel = new JLabel("Nothing equipped");
             emptyLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
             emptyLabel.setBorder(new EmptyBorder(20, 0, 0, 0));
             equippedPanel.add(emptyLabel);
         } else {
-            if (player.getEquippedWeapon() != null) {
-                equippedPanel.add(createEquippedItemPanel(player.getEquippedWeapon(), "weapon"));
+            if (inventory.getWeapon() != null) {
+                equippedPanel.add(createEquippedItemPanel(inventory.getWeapon(), "weapon"));
             }
             
-            if (player.getEquippedArmor() != null) {
-                equippedPanel.add(createEquippedItemPanel(player.getEquippedArmor(), "armor"));
+            if (inventory.getArmorItem() != null) {
+                equippedPanel.add(createEquippedItemPanel(inventory.getArmorItem(), "armor"));
             }
         }
         
@@ -221,7 +246,7 @@ public class Inventorydisplay extends JFrame {
     /**
      * Create a panel for a single inventory item
      */
-    private JPanel createItemPanel(Item item, int index) {
+    private JPanel createItemPanel(InventorySnapshot.Entry item, int index) {
         JPanel panel = new JPanel(new BorderLayout(5, 0));
         panel.setBorder(BorderFactory.createCompoundBorder(
             BorderFactory.createMatteBorder(0, 0, 1, 0, Color.LIGHT_GRAY),
@@ -259,49 +284,21 @@ public class Inventorydisplay extends JFrame {
         
         if (item.isConsumable()) {
             JButton useButton = new JButton("Use");
-            useButton.addActionListener(e -> {
-                if (player.useConsumable(index)) {
-                    statusLabel.setText(player.getStatusMessage());
-                    updateDisplay();
-                } else {
-                    statusLabel.setText(player.getStatusMessage());
-                }
-            });
+            useButton.addActionListener(e -> performAction(Command.useItem(index, item.getItem())));
             buttonPanel.add(useButton);
         } else if (item.getType().equals("weapon")) {
             JButton equipButton = new JButton("Equip");
-            equipButton.addActionListener(e -> {
-                if (player.equipWeapon(index)) {
-                    statusLabel.setText(player.getStatusMessage());
-                    updateDisplay();
-                } else {
-                    statusLabel.setText(player.getStatusMessage());
-                }
-            });
+            equipButton.addActionListener(e -> performAction(Command.equipWeapon(index, item.getItem())));
             buttonPanel.add(equipButton);
         } else if (item.getType().equals("armor")) {
             JButton equipButton = new JButton("Equip");
-            equipButton.addActionListener(e -> {
-                if (player.equipArmor(index)) {
-                    statusLabel.setText(player.getStatusMessage());
-                    updateDisplay();
-                } else {
-                    statusLabel.setText(player.getStatusMessage());
-                }
-            });
+            equipButton.addActionListener(e -> performAction(Command.equipArmor(index, item.getItem())));
             buttonPanel.add(equipButton);
         }
         
         // All items can be dropped
         JButton dropButton = new JButton("Drop");
-        dropButton.addActionListener(e -> {
-            if (player.dropItem(index)) {
-                statusLabel.setText(player.getStatusMessage());
-                updateDisplay();
-            } else {
-                statusLabel.setText(player.getStatusMessage());
-            }
-        });
+        dropButton.addActionListener(e -> performAction(Command.dropItem(index, item.getItem())));
         buttonPanel.add(dropButton);
         
         panel.add(buttonPanel, BorderLayout.EAST);
@@ -312,7 +309,7 @@ public class Inventorydisplay extends JFrame {
     /**
      * Create a panel for an equipped item
      */
-    private JPanel createEquippedItemPanel(Item item, String slot) {
+    private JPanel createEquippedItemPanel(InventorySnapshot.Entry item, String slot) {
         JPanel panel = new JPanel(new BorderLayout(5, 0));
         panel.setBorder(BorderFactory.createCompoundBorder(
             BorderFactory.createMatteBorder(0, 0, 1, 0, Color.LIGHT_GRAY),
@@ -341,21 +338,8 @@ public class Inventorydisplay extends JFrame {
         
         // Unequip button
         JButton unequipButton = new JButton("Unequip");
-        unequipButton.addActionListener(e -> {
-            boolean success = false;
-            if (slot.equals("weapon")) {
-                success = player.unequipWeapon();
-            } else if (slot.equals("armor")) {
-                success = player.unequipArmor();
-            }
-            
-            if (success) {
-                statusLabel.setText(player.getStatusMessage());
-                updateDisplay();
-            } else {
-                statusLabel.setText(player.getStatusMessage());
-            }
-        });
+        unequipButton.addActionListener(e -> performAction(
+            slot.equals("weapon") ? Command.unequipWeapon() : Command.unequipArmor()));
         
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 5, 0));
         buttonPanel.setOpaque(false);
@@ -1,6 +1,6 @@
 package com.example;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * Represents an item in the game
@@ -128,7 +128,7 @@ public class Item {
     }
 
     private String generateRandomScrollName() {
-        Random rand = new Random();
+        SplittableRandom rand = GameRandom.get(GameRandom.Stream.LOOT);
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < 4; i++) {
             sb.append((char) (rand.nextInt(26) + 'A'));
@@ -1,18 +1,20 @@
 package com.example;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * Factory class to create different types of items
  */
 public class ItemFactory {
-    private static final Random rand = new Random();
+    private static SplittableRandom rand() {
+        return GameRandom.get(GameRandom.Stream.LOOT);
+    }
     
     /**
      * Creates a random item based on dungeon level
      */
     public static Item createRandomItem(int dungeonLevel) {
-        double roll = rand.nextDouble();
+        double roll = rand().nextDouble();
         
         // Higher chance for consumables (60%)
         if (roll < 0.6) {
@@ -42,14 +44,14 @@ public class ItemFactory {
         };
         
         // Select a random consumable type
-        String type = consumableTypes[rand.nextInt(consumableTypes.length)];
+        String type = consumableTypes[rand().nextInt(consumableTypes.length)];
         
         // Create the base consumable
         Item item = Item.createCommonConsumable(type);
         
         // Scale effect values slightly based on dungeon level
         if (dungeonLevel > 1) {
-            int bonusEffect = rand.nextInt(dungeonLevel);
+            int bonusEffect = rand().nextInt(dungeonLevel);
             return new Item(
                 item.getName(), 
                 item.getType(), 
@@ -77,7 +79,7 @@ public class ItemFactory {
         index = Math.max(0, index); // Ensure we don't get negative index
         
         String name = armorTypes[index];
-        int armorValue = 1 + index + rand.nextInt(dungeonLevel);
+        int armorValue = 1 + index + rand().nextInt(dungeonLevel);
         int value = armorValue * 15;
         
         return new Item(
@@ -104,7 +106,7 @@ public class ItemFactory {
         index = Math.max(0, index); // Ensure we don't get negative index
         
         String name = weaponTypes[index];
-        int strengthValue = 1 + index + rand.nextInt(dungeonLevel);
+        int strengthValue = 1 + index + rand().nextInt(dungeonLevel);
         int value = strengthValue * 20;
         
         return new Item(
@@ -124,7 +126,7 @@ public class ItemFactory {
      */
     public static Item createScroll(int dungeonLevel) {
         String[] scrollEffects = {"giant", "berserk"};
-        String effect = scrollEffects[rand.nextInt(scrollEffects.length)];
+        String effect = scrollEffects[rand().nextInt(scrollEffects.length)];
         String name;
         String description;
         int value = 50 * dungeonLevel;
@@ -0,0 +1,114 @@
+package com.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Visited levels by level number. The most recently used dungeons stay in
+ * memory; older ones are written to a {@link LevelSnapshot} in a spill
+ * directory and read back the next time they are asked for.
+ */
+public class LevelCache {
+    public static final int DEFAULT_CAPACITY = 3;
+
+    private final int capacity;
+    private final Map<Integer, Dungeon> levels;
+    private final Set<Integer> spilled = new HashSet<>();
+    private Path spillDir;
+
+    public LevelCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity how many levels are kept in memory before spilling to disk
+     */
+    public LevelCache(int capacity) {
+        this(capacity, null);
+    }
+
+    /**
+     * @param spillDir where evicted levels are written; a temporary directory if null
+     */
+    public LevelCache(int capacity, Path spillDir) {
+        this.capacity = Math.max(1, capacity);
+        this.spillDir = spillDir;
+        this.levels = new LinkedHashMap<Integer, Dungeon>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Dungeon> eldest) {
+                if (size() <= LevelCache.this.capacity) {
+                    return false;
+                }
+                spill(eldest.getKey(), eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    public synchronized boolean contains(int level) {
+        return levels.containsKey(level) || spilled.contains(level);
+    }
+
+    /**
+     * Remember the state of a level, making it the most recently used
+     */
+    public synchronized void put(Dungeon dungeon) {
+        int level = dungeon.getLevelNumber();
+        spilled.remove(level);
+        levels.put(level, dungeon);
+    }
+
+    /**
+     * The saved dungeon for a level, restoring it from disk if it was spilled.
+     *
+     * @return null if the level has not been visited or its snapshot could not be read
+     */
+    public synchronized Dungeon get(int level) {
+        Dungeon dungeon = levels.get(level);
+        if (dungeon != null || !spilled.remove(level)) {
+            return dungeon;
+        }
+
+        Path file = snapshotFile(level);
+        try {
+            dungeon = LevelSnapshot.read(file);
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.out.println("❌ Error restoring level " + level + ": " + e.getMessage());
+            return null;
+        }
+        System.out.println("🔄 Restored level " + level + " from " + file);
+        levels.put(level, dungeon);
+        return dungeon;
+    }
+
+    private void spill(int level, Dungeon dungeon) {
+        try {
+            Path file = snapshotFile(level);
+            LevelSnapshot.write(dungeon, file);
+            file.toFile().deleteOnExit();
+            spilled.add(level);
+        } catch (IOException | UncheckedIOException e) {
+            // The level will simply be loaded fresh next time
+            System.out.println("❌ Error saving level " + level + ": " + e.getMessage());
+        }
+    }
+
+    private Path snapshotFile(int level) {
+        if (spillDir == null) {
+            try {
+                spillDir = Files.createTempDirectory("rogue-levels");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            spillDir.toFile().deleteOnExit();
+        }
+        return spillDir.resolve("level" + level + ".snap");
+    }
+}
@@ -0,0 +1,54 @@
+package com.example;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Compiles text levels (levels/levelN.txt) into the binary .rlv format and
+ * writes a {@link LevelManifest} index for the output directory. Rerun it
+ * after adding or editing levels, since the game trusts the index.
+ *
+ * Usage: LevelCompiler [input dir] [output dir]
+ */
+public class LevelCompiler {
+
+    /**
+     * Runs in-process under exec:java during the build, so failures are
+     * thrown for Maven to report rather than ending the JVM
+     */
+    public static void main(String[] args) throws IOException {
+        File inputDir = new File(args.length > 0 ? args[0] : "levels");
+        File outputDir = new File(args.length > 1 ? args[1] : inputDir.getPath());
+        compileAll(inputDir, outputDir);
+    }
+
+    /**
+     * Compile every text level in a directory and index the results
+     */
+    public static void compileAll(File inputDir, File outputDir) throws IOException {
+        File[] levelFiles = inputDir.listFiles((dir, name) -> name.startsWith("level") && name.endsWith(".txt"));
+        if (levelFiles == null || levelFiles.length == 0) {
+            throw new IOException("No level files found in " + inputDir.getAbsolutePath());
+        }
+
+        if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+            throw new IOException("Cannot create output directory " + outputDir);
+        }
+
+        for (File levelFile : levelFiles) {
+            String name = levelFile.getName();
+            Path output = outputDir.toPath().resolve(name.substring(0, name.length() - 4) + BinaryLevelFormat.EXTENSION);
+            compile(levelFile.toPath(), output);
+            System.out.println("✅ Compiled " + levelFile.getPath() + " -> " + output);
+        }
+
+        Path index = outputDir.toPath().resolve(LevelManifest.INDEX_FILE);
+        LevelManifest.scan(outputDir.toPath()).writeIndex(index);
+        System.out.println("✅ Wrote level index " + index);
+    }
+
+    public static void compile(Path textLevel, Path binaryLevel) throws IOException {
+        BinaryLevelFormat.write(LevelLoader.load(textLevel), binaryLevel);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example;
+
+/**
+ * A parsed level: the packed map plus the features found while decoding it
+ */
+public class LevelData {
+    private final int levelNumber;
+    private final FlatTileGrid grid;
+    private final int[] stairsUp;
+    private final int[] stairsDown;
+    private final int[] playerStart;
+    private final int floorCount;
+
+    public LevelData(int levelNumber, FlatTileGrid grid, int[] stairsUp, int[] stairsDown,
+                     int[] playerStart, int floorCount) {
+        this.levelNumber = levelNumber;
+        this.grid = grid;
+        this.stairsUp = stairsUp;
+        this.stairsDown = stairsDown;
+        this.playerStart = playerStart;
+        this.floorCount = floorCount;
+    }
+
+    public int getLevelNumber() { return levelNumber; }
+    public FlatTileGrid getGrid() { return grid; }
+    public int[] getStairsUp() { return stairsUp; }
+    public int[] getStairsDown() { return stairsDown; }
+    public int[] getPlayerStart() { return playerStart; }
+    public int getFloorCount() { return floorCount; }
+}
@@ -0,0 +1,296 @@
+package com.example;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Procedural levels: binary space partitioning into rooms joined by
+ * corridors.
+ *
+ * Every BSP node draws from its own random stream derived from the floor
+ * seed and the node's position in the tree, and nodes only ever carve floor
+ * inside their own region, so subtrees can be generated in parallel on a
+ * fork-join pool and the result is identical for a given seed whatever the
+ * thread count. Whole floors can be generated in parallel the same way.
+ *
+ * Usage: LevelGenerator output-dir [count] [width] [height] [seed]
+ */
+public class LevelGenerator {
+    public static final int DEFAULT_WIDTH = 80;
+    public static final int DEFAULT_HEIGHT = 40;
+
+    private static final int MIN_LEAF = 8;              // Smallest region that still gets a room
+    static final int MIN_SIZE = 2 * MIN_LEAF + 2;       // Smallest side that splits, counting the outer walls
+    private static final int PARALLEL_AREA = 64 * 64;   // Regions smaller than this are not forked
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private final int width;
+    private final int height;
+    private final ForkJoinPool pool;
+
+    public LevelGenerator(long seed, int width, int height) {
+        this(seed, width, height, ForkJoinPool.commonPool());
+    }
+
+    public LevelGenerator(long seed, int width, int height, ForkJoinPool pool) {
+        if (width < MIN_LEAF + 2 || height < MIN_LEAF + 2) {
+            throw new IllegalArgumentException("Level must be at least " + (MIN_LEAF + 2) + " cells on each side");
+        }
+        // One side must split in two, or the only room holds both the start and the stairs down
+        if (width < MIN_SIZE && height < MIN_SIZE) {
+            throw new IllegalArgumentException("Level must be at least " + MIN_SIZE + " cells on one side");
+        }
+        this.seed = seed;
+        this.width = width;
+        this.height = height;
+        this.pool = pool;
+    }
+
+    /**
+     * Generate one floor, splitting the work across the pool
+     */
+    public LevelData generate(int levelNumber) {
+        if (ForkJoinTask.inForkJoinPool()) {
+            return build(levelNumber);
+        }
+        return pool.invoke(ForkJoinTask.adapt(() -> build(levelNumber)));
+    }
+
+    /**
+     * Generate consecutive floors in parallel
+     */
+    public List<LevelData> generateFloors(int firstLevel, int count) {
+        List<ForkJoinTask<LevelData>> floors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int levelNumber = firstLevel + i;
+            floors.add(ForkJoinTask.adapt(() -> build(levelNumber)));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> {
+            ForkJoinTask.invokeAll(floors);
+        }));
+
+        List<LevelData> levels = new ArrayList<>(count);
+        for (ForkJoinTask<LevelData> floor : floors) {
+            levels.add(floor.join());
+        }
+        return levels;
+    }
+
+    /**
+     * A playable dungeon for a generated floor, with monsters
+     */
+    public Dungeon generateDungeon(int levelNumber) {
+        return new Dungeon(generate(levelNumber));
+    }
+
+    private LevelData build(int levelNumber) {
+        long floorSeed = GameRandom.mix(seed ^ GameRandom.mix(levelNumber * GOLDEN_GAMMA));
+        byte[] cells = new byte[width * height];
+        Arrays.fill(cells, (byte) TileGrid.WALL);
+
+        // The outer ring stays wall
+        Region root = new Region(1, 1, width - 2, height - 2, 1);
+        new Split(root, floorSeed, cells).invoke();
+
+        FlatTileGrid grid = new FlatTileGrid(width, height, cells);
+        SplittableRandom rand = new SplittableRandom(floorSeed);
+
+        // Start in the first room, go down from the last one
+        List<Region> rooms = new ArrayList<>();
+        root.collectRooms(rooms);
+        Region first = rooms.get(0);
+        Region last = rooms.get(rooms.size() - 1);
+        int[] playerStart = {first.roomX + first.roomWidth / 2, first.roomY + first.roomHeight / 2};
+        int[] stairsDown = {last.roomX + last.roomWidth / 2, last.roomY + last.roomHeight / 2};
+        int[] stairsUp = null;
+        grid.setTerrain(stairsDown[0], stairsDown[1], TileGrid.STAIRS_DOWN);
+        if (levelNumber > 1) {
+            stairsUp = new int[]{first.roomX, first.roomY};
+            grid.setTerrain(stairsUp[0], stairsUp[1], TileGrid.STAIRS_UP);
+        }
+
+        int loot = rooms.size() / 2 + 1;
+        for (int i = 0; i < loot; i++) {
+            Region room = rooms.get(rand.nextInt(rooms.size()));
+            int x = room.roomX + rand.nextInt(room.roomWidth);
+            int y = room.roomY + rand.nextInt(room.roomHeight);
+            if (grid.isOpenFloor(x, y) && !(x == playerStart[0] && y == playerStart[1])) {
+                grid.setItem(x, y, rand.nextInt(3) == 0 ? TileGrid.GOLD : TileGrid.ITEM);
+            }
+        }
+
+        int floorCount = 0;
+        for (byte cell : cells) {
+            if ((cell & TileGrid.TERRAIN_MASK) == TileGrid.FLOOR) {
+                floorCount++;
+            }
+        }
+        return new LevelData(levelNumber, grid, stairsUp, stairsDown, playerStart, floorCount);
+    }
+
+    /**
+     * A node of the BSP tree: its region, and once generated, its children or its room
+     */
+    private static class Region {
+        final int x, y, width, height;
+        final long id;     // Heap numbering: children of n are 2n and 2n+1
+        Region left, right;
+        int roomX, roomY, roomWidth, roomHeight;
+
+        Region(int x, int y, int width, int height, long id) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            this.id = id;
+        }
+
+        boolean isLeaf() {
+            return left == null;
+        }
+
+        void collectRooms(List<Region> rooms) {
+            if (isLeaf()) {
+                rooms.add(this);
+            } else {
+                left.collectRooms(rooms);
+                right.collectRooms(rooms);
+            }
+        }
+
+        /**
+         * Some room in this subtree, the same one for a given tree
+         */
+        Region anyRoom() {
+            return isLeaf() ? this : (id % 2 == 0 ? left : right).anyRoom();
+        }
+    }
+
+    private class Split extends RecursiveAction {
+        private final Region region;
+        private final long floorSeed;
+        private final byte[] cells;
+
+        Split(Region region, long floorSeed, byte[] cells) {
+            this.region = region;
+            this.floorSeed = floorSeed;
+            this.cells = cells;
+        }
+
+        @Override
+        protected void compute() {
+            SplittableRandom rand = new SplittableRandom(GameRandom.mix(floorSeed + region.id * GOLDEN_GAMMA));
+            boolean canSplitX = region.width >= 2 * MIN_LEAF;
+            boolean canSplitY = region.height >= 2 * MIN_LEAF;
+
+            if (!canSplitX && !canSplitY) {
+                carveRoom(rand);
+                return;
+            }
+
+            // Split across the longer side so regions stay roughly square
+            boolean vertical = canSplitX && (!canSplitY || region.width > region.height
+                || (region.width == region.height && rand.nextBoolean()));
+            if (vertical) {
+                int cut = MIN_LEAF + rand.nextInt(region.width - 2 * MIN_LEAF + 1);
+                region.left = new Region(region.x, region.y, cut, region.height, region.id * 2);
+                region.right = new Region(region.x + cut, region.y, region.width - cut, region.height, region.id * 2 + 1);
+            } else {
+                int cut = MIN_LEAF + rand.nextInt(region.height - 2 * MIN_LEAF + 1);
+                region.left = new Region(region.x, region.y, region.width, cut, region.id * 2);
+                region.right = new Region(region.x, region.y + cut, region.width, region.height - cut, region.id * 2 + 1);
+            }
+
+            Split left = new Split(region.left, floorSeed, cells);
+            Split right = new Split(region.right, floorSeed, cells);
+            if (region.width * region.height >= PARALLEL_AREA) {
+                invokeAll(left, right);
+            } else {
+                left.compute();
+                right.compute();
+            }
+
+            connect(region.left.anyRoom(), region.right.anyRoom(), rand);
+        }
+
+        /**
+         * A room inside the region, leaving a wall on every side
+         */
+        private void carveRoom(SplittableRandom rand) {
+            int roomWidth = 3 + rand.nextInt(region.width - 4);
+            int roomHeight = 3 + rand.nextInt(region.height - 4);
+            region.roomX = region.x + 1 + rand.nextInt(region.width - roomWidth - 1);
+            region.roomY = region.y + 1 + rand.nextInt(region.height - roomHeight - 1);
+            region.roomWidth = roomWidth;
+            region.roomHeight = roomHeight;
+
+            for (int y = region.roomY; y < region.roomY + roomHeight; y++) {
+                Arrays.fill(cells, y * width + region.roomX, y * width + region.roomX + roomWidth,
+                                      (byte) TileGrid.FLOOR);
+            }
+        }
+
+        /**
+         * L-shaped corridor between the centres of two rooms; both lie inside
+         * this region, so the corridor does too
+         */
+        private void connect(Region a, Region b, SplittableRandom rand) {
+            int ax = a.roomX + a.roomWidth / 2;
+            int ay = a.roomY + a.roomHeight / 2;
+            int bx = b.roomX + b.roomWidth / 2;
+            int by = b.roomY + b.roomHeight / 2;
+
+            if (rand.nextBoolean()) {
+                carveRow(ay, ax, bx);
+                carveColumn(bx, ay, by);
+            } else {
+                carveColumn(ax, ay, by);
+                carveRow(by, ax, bx);
+            }
+        }
+
+        private void carveRow(int y, int x0, int x1) {
+            for (int x = Math.min(x0, x1); x <= Math.max(x0, x1); x++) {
+                cells[y * width + x] = TileGrid.FLOOR;
+            }
+        }
+
+        private void carveColumn(int x, int y0, int y1) {
+            for (int y = Math.min(y0, y1); y <= Math.max(y0, y1); y++) {
+                cells[y * width + x] = TileGrid.FLOOR;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: LevelGenerator output-dir [count] [width] [height] [seed]");
+            System.exit(1);
+        }
+        Path outputDir = Path.of(args[0]);
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int width = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_WIDTH;
+        int height = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_HEIGHT;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+
+        Files.createDirectories(outputDir);
+        long started = System.nanoTime();
+        List<LevelData> levels = new LevelGenerator(seed, width, height).generateFloors(1, count);
+        for (LevelData level : levels) {
+            BinaryLevelFormat.write(level, outputDir.resolve("level" + level.getLevelNumber() + BinaryLevelFormat.EXTENSION));
+        }
+        LevelManifest.scan(outputDir).writeIndex(outputDir.resolve(LevelManifest.INDEX_FILE));
+
+        System.out.println("✅ Generated " + count + " levels of " + width + "x" + height + " with seed " + seed
+                           + " in " + (System.nanoTime() - started) / 1_000_000 + " ms -> " + outputDir);
+    }
+}
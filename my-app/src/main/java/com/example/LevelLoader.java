@@ -0,0 +1,188 @@
+package com.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Reads level files. The file is memory-mapped; binary levels are handed to
+ * {@link BinaryLevelFormat}, text levels are decoded in a single pass straight
+ * into packed cells, recording stairs, the player start and the number of
+ * floor cells on the way.
+ */
+public final class LevelLoader {
+    private static final byte[] HEADER = "LEVEL ".getBytes();
+
+    private LevelLoader() {
+    }
+
+    public static LevelData load(Path levelFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(levelFile, StandardOpenOption.READ)) {
+            return decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Load a level whose file is expected to have the given CRC32, as recorded in a {@link LevelManifest}
+     */
+    public static LevelData load(Path levelFile, long expectedChecksum) throws IOException {
+        try (FileChannel channel = FileChannel.open(levelFile, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate());
+            if (crc.getValue() != expectedChecksum) {
+                throw new IOException(levelFile + " has changed since the level manifest was built");
+            }
+            return decode(buffer);
+        }
+    }
+
+    /**
+     * Decode a whole level file held in memory, text or binary
+     */
+    public static LevelData parse(byte[] levelFile) throws IOException {
+        return decode(ByteBuffer.wrap(levelFile));
+    }
+
+    private static LevelData decode(ByteBuffer buffer) throws IOException {
+        if (BinaryLevelFormat.isBinary(buffer)) {
+            return BinaryLevelFormat.read(buffer);
+        }
+        return parse(buffer);
+    }
+
+    /**
+     * Decode a text level from the buffer's position to its limit
+     */
+    public static LevelData parse(ByteBuffer in) throws IOException {
+        int levelNumber = parseHeader(in);
+
+        int width = -1;
+        int height = 0;
+        byte[] cells = null;
+        int[] stairsUp = null;
+        int[] stairsDown = null;
+        int[] playerStart = null;
+        int[] firstFloor = null;
+        int floorCount = 0;
+
+        while (in.hasRemaining()) {
+            int lineStart = in.position();
+            int lineEnd = endOfLine(in, lineStart);
+            in.position(Math.min(in.limit(), lineEnd + 1));
+
+            int length = lineEnd - lineStart;
+            if (length > 0 && in.get(lineEnd - 1) == '\r') {
+                length--;
+            }
+            if (isBlank(in, lineStart, length)) {
+                continue;
+            }
+
+            if (width < 0) {
+                // The first map row fixes the width; no level can have more rows than bytes left
+                width = length;
+                int maxRows = (in.limit() - lineStart) / (width + 1) + 1;
+                cells = new byte[width * maxRows];
+            }
+
+            int rowOffset = height * width;
+            if (rowOffset + width > cells.length) {
+                // Short rows can outnumber the estimate
+                cells = Arrays.copyOf(cells, Math.max(cells.length * 2, rowOffset + width));
+            }
+            int rowLength = Math.min(width, length);
+            for (int x = 0; x < rowLength; x++) {
+                char tile = (char) (in.get(lineStart + x) & 0xFF);
+                byte cell = TileGrid.cellFor(tile);
+                cells[rowOffset + x] = cell;
+
+                switch (tile) {
+                    case '>': stairsDown = new int[]{x, height}; break;
+                    case '<': stairsUp = new int[]{x, height}; break;
+                    case 'P':
+                        if (playerStart == null) {
+                            playerStart = new int[]{x, height};
+                        }
+                        break;
+                    default: break;
+                }
+                if ((cell & TileGrid.TERRAIN_MASK) == TileGrid.FLOOR) {
+                    if (firstFloor == null) {
+                        firstFloor = new int[]{x, height};
+                    }
+                    floorCount++;
+                }
+            }
+            height++;
+        }
+
+        if (height == 0) {
+            throw new IOException("Level file is empty!");
+        }
+
+        // Without a 'P' the player starts on the first floor cell
+        if (playerStart == null) {
+            playerStart = firstFloor;
+        }
+
+        FlatTileGrid grid = new FlatTileGrid(width, height, Arrays.copyOf(cells, width * height));
+        return new LevelData(levelNumber, grid, stairsUp, stairsDown, playerStart, floorCount);
+    }
+
+    private static int parseHeader(ByteBuffer in) throws IOException {
+        int lineStart = in.position();
+        int lineEnd = endOfLine(in, lineStart);
+
+        boolean hasHeader = lineEnd - lineStart > HEADER.length;
+        for (int i = 0; hasHeader && i < HEADER.length; i++) {
+            hasHeader = in.get(lineStart + i) == HEADER[i];
+        }
+        if (!hasHeader) {
+            throw new IOException("Level file does not start with 'LEVEL X'!");
+        }
+
+        int number = 0;
+        boolean digits = false;
+        for (int i = lineStart + HEADER.length; i < lineEnd; i++) {
+            byte b = in.get(i);
+            if (b >= '0' && b <= '9') {
+                number = number * 10 + (b - '0');
+                digits = true;
+            } else if (b != ' ' && b != '\t' && b != '\r') {
+                throw new IOException("Invalid level number in header");
+            }
+        }
+        if (!digits) {
+            throw new IOException("Invalid level number in header");
+        }
+
+        in.position(Math.min(in.limit(), lineEnd + 1));
+        return number;
+    }
+
+    private static int endOfLine(ByteBuffer in, int from) {
+        int limit = in.limit();
+        for (int i = from; i < limit; i++) {
+            if (in.get(i) == '\n') {
+                return i;
+            }
+        }
+        return limit;
+    }
+
+    private static boolean isBlank(ByteBuffer in, int from, int length) {
+        for (int i = from; i < from + length; i++) {
+            byte b = in.get(i);
+            if (b != ' ' && b != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
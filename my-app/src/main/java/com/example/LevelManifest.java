@@ -0,0 +1,292 @@
+package com.example;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Every level the game can load, collected once at startup so stair
+ * transitions never touch the filesystem to find out what exists.
+ *
+ * Levels come from the classpath (the {@value #RESOURCE_DIR} directory
+ * packaged in the jar, listed by its index) and from an optional directory
+ * on disk whose levels override the packaged ones. A directory is read
+ * through its index ({@value #INDEX_FILE}) when it has one, otherwise it is
+ * scanned. Index lines are {@code number file width height crc32}; '#'
+ * starts a comment.
+ */
+public class LevelManifest {
+    public static final String RESOURCE_DIR = "levels";
+    public static final String INDEX_FILE = "levels.idx";
+
+    /**
+     * One level, on disk or on the classpath, and what is known about it without loading it
+     */
+    public static class Entry {
+        private final int number;
+        private final Path path;        // Null for classpath levels
+        private final String resource;  // Null for levels on disk
+        private final int width;
+        private final int height;
+        private final long checksum;
+        private boolean last;
+
+        Entry(int number, Path path, String resource, int width, int height, long checksum) {
+            this.number = number;
+            this.path = path;
+            this.resource = resource;
+            this.width = width;
+            this.height = height;
+            this.checksum = checksum;
+        }
+
+        public int getNumber() { return number; }
+        public int getWidth() { return width; }
+        public int getHeight() { return height; }
+        public long getChecksum() { return checksum; }
+
+        /**
+         * File path, or "classpath:" and the resource name for packaged levels
+         */
+        public String getLocation() {
+            return path != null ? path.toString() : "classpath:" + resource;
+        }
+
+        /**
+         * Whether this is the deepest level
+         */
+        public boolean isLast() { return last; }
+
+        /**
+         * Read the level, failing if it no longer matches the manifest
+         */
+        public LevelData load() throws IOException {
+            if (path != null) {
+                return LevelLoader.load(path, checksum);
+            }
+
+            byte[] bytes;
+            try (InputStream in = openResource(resource)) {
+                if (in == null) {
+                    throw new IOException(getLocation() + " is listed in the level index but missing");
+                }
+                bytes = in.readAllBytes();
+            }
+            if (checksum(bytes) != checksum) {
+                throw new IOException(getLocation() + " does not match the level index");
+            }
+            return LevelLoader.parse(bytes);
+        }
+
+        private boolean isBinary() {
+            return getLocation().endsWith(BinaryLevelFormat.EXTENSION);
+        }
+    }
+
+    private final Map<Integer, Entry> levels;
+    private int firstLevel = Integer.MAX_VALUE;
+    private int lastLevel;
+
+    private LevelManifest(Map<Integer, Entry> levels) {
+        this.levels = levels;
+        for (Entry entry : levels.values()) {
+            entry.last = false;
+            firstLevel = Math.min(firstLevel, entry.number);
+            lastLevel = Math.max(lastLevel, entry.number);
+        }
+        Entry deepest = levels.get(lastLevel);
+        if (deepest != null) {
+            deepest.last = true;
+        }
+    }
+
+    private static LevelManifest of(List<Entry> entries) throws IOException {
+        Map<Integer, Entry> levels = new HashMap<>();
+        for (Entry entry : entries) {
+            Entry previous = levels.get(entry.number);
+            if (previous == null || prefer(entry, previous)) {
+                levels.put(entry.number, entry);
+            }
+        }
+        return new LevelManifest(levels);
+    }
+
+    /**
+     * Whether a level file should be used over another with the same number.
+     * On disk the newer file wins, so a stale compiled level never hides
+     * edits to its text, and the text wins a tie. Packaged levels are built
+     * together, so there the compiled one wins.
+     */
+    private static boolean prefer(Entry entry, Entry other) throws IOException {
+        if (entry.isBinary() == other.isBinary()) {
+            return false;
+        }
+        if (entry.path == null || other.path == null) {
+            return entry.isBinary();
+        }
+        int age = Files.getLastModifiedTime(entry.path).compareTo(Files.getLastModifiedTime(other.path));
+        return age > 0 || (age == 0 && !entry.isBinary());
+    }
+
+    /**
+     * Packaged levels, with any levels in the override directory taking their place
+     */
+    public static LevelManifest load(Path overrideDir) throws IOException {
+        LevelManifest packaged = fromClasspath();
+        if (overrideDir == null || !Files.isDirectory(overrideDir)) {
+            return packaged;
+        }
+
+        Map<Integer, Entry> levels = new HashMap<>(packaged.levels);
+        levels.putAll(fromDirectory(overrideDir).levels);
+        return new LevelManifest(levels);
+    }
+
+    /**
+     * Levels listed in the packaged index; empty if there is none
+     */
+    public static LevelManifest fromClasspath() throws IOException {
+        String prefix = RESOURCE_DIR + "/";
+        InputStream index = openResource(prefix + INDEX_FILE);
+        if (index == null) {
+            return of(new ArrayList<>());
+        }
+
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(index, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return readIndex("classpath:" + prefix + INDEX_FILE, lines,
+            (number, file, width, height, checksum) ->
+                new Entry(number, null, prefix + file, width, height, checksum));
+    }
+
+    /**
+     * Read the directory's index if it has one, otherwise scan it
+     */
+    public static LevelManifest fromDirectory(Path levelsDir) throws IOException {
+        Path index = levelsDir.resolve(INDEX_FILE);
+        if (Files.isRegularFile(index)) {
+            return readIndex(index.toString(), Files.readAllLines(index, StandardCharsets.UTF_8),
+                (number, file, width, height, checksum) ->
+                    new Entry(number, levelsDir.resolve(file), null, width, height, checksum));
+        }
+        return scan(levelsDir);
+    }
+
+    /**
+     * Load every levelN.txt / levelN.rlv file in a directory to record its size and checksum
+     */
+    public static LevelManifest scan(Path levelsDir) throws IOException {
+        File[] files = levelsDir.toFile().listFiles((dir, name) -> name.startsWith("level")
+            && (name.endsWith(".txt") || name.endsWith(BinaryLevelFormat.EXTENSION)));
+        List<Entry> entries = new ArrayList<>();
+        if (files != null) {
+            for (File file : files) {
+                byte[] bytes = Files.readAllBytes(file.toPath());
+                LevelData level = LevelLoader.parse(bytes);
+                TileGrid grid = level.getGrid();
+                entries.add(new Entry(level.getLevelNumber(), file.toPath(), null,
+                                      grid.getWidth(), grid.getHeight(), checksum(bytes)));
+            }
+        }
+        return of(entries);
+    }
+
+    /**
+     * Creates the entry for an index line, resolving its file name
+     */
+    private interface Locator {
+        Entry locate(int number, String file, int width, int height, long checksum);
+    }
+
+    private static LevelManifest readIndex(String source, List<String> lines, Locator locator) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : lines) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\\s+");
+            if (fields.length != 5) {
+                throw new IOException(source + ":" + lineNumber + ": expected 5 fields");
+            }
+            try {
+                entries.add(locator.locate(Integer.parseInt(fields[0]), fields[1],
+                                           Integer.parseInt(fields[2]), Integer.parseInt(fields[3]),
+                                           Long.parseLong(fields[4], 16)));
+            } catch (NumberFormatException e) {
+                throw new IOException(source + ":" + lineNumber + ": " + e.getMessage());
+            }
+        }
+        return of(entries);
+    }
+
+    /**
+     * Write an index for the levels in this manifest that live on disk, with
+     * paths relative to the index
+     */
+    public void writeIndex(Path index) throws IOException {
+        Path dir = index.toAbsolutePath().getParent();
+        try (BufferedWriter out = Files.newBufferedWriter(index, StandardCharsets.UTF_8)) {
+            out.write("# level file width height crc32\n");
+            for (int number = firstLevel; number <= lastLevel; number++) {
+                Entry entry = levels.get(number);
+                if (entry != null && entry.path != null) {
+                    out.write(entry.number + " " + dir.relativize(entry.path.toAbsolutePath())
+                              + " " + entry.width + " " + entry.height
+                              + " " + Long.toHexString(entry.checksum) + "\n");
+                }
+            }
+        }
+    }
+
+    private static InputStream openResource(String name) {
+        return LevelManifest.class.getClassLoader().getResourceAsStream(name);
+    }
+
+    static long checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+    /**
+     * The level with this number, or null if there is none
+     */
+    public Entry get(int number) {
+        return levels.get(number);
+    }
+
+    public Entry next(int number) {
+        return levels.get(number + 1);
+    }
+
+    public Entry previous(int number) {
+        return levels.get(number - 1);
+    }
+
+    public boolean isLastLevel(int number) {
+        return number == lastLevel && levels.containsKey(number);
+    }
+
+    public int size() {
+        return levels.size();
+    }
+}
@@ -0,0 +1,125 @@
+package com.example;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+
+/**
+ * Prepares the dungeons next to the current level on a background thread, so
+ * taking the stairs only has to swap in a dungeon that is already built.
+ *
+ * At most {@code maxPrepared} levels are held; levels that stop being
+ * adjacent to the current one are cancelled and dropped.
+ */
+public class LevelPrefetcher {
+    public static final int DEFAULT_MAX_PREPARED = 2;
+
+    private final IntFunction<LevelManifest.Entry> levels;
+    private final IntPredicate alreadyAvailable;
+    private final int maxPrepared;
+    private final Map<Integer, Future<Dungeon>> prepared = new HashMap<>();
+    private final ExecutorService executor;
+    private int currentLevel;
+
+    /**
+     * @param levels manifest entry for a level number, or null if there is no such level
+     */
+    public LevelPrefetcher(IntFunction<LevelManifest.Entry> levels) {
+        this(levels, level -> false, DEFAULT_MAX_PREPARED);
+    }
+
+    /**
+     * @param alreadyAvailable levels that never need preparing, e.g. ones kept in a {@link LevelCache}
+     */
+    public LevelPrefetcher(IntFunction<LevelManifest.Entry> levels, IntPredicate alreadyAvailable, int maxPrepared) {
+        this.levels = levels;
+        this.alreadyAvailable = alreadyAvailable;
+        this.maxPrepared = Math.max(1, maxPrepared);
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "level-prefetch");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * The player is now on this level: drop levels that are no longer
+     * adjacent and start preparing the ones above and below
+     */
+    public synchronized void prefetchAround(int level) {
+        currentLevel = level;
+
+        Iterator<Map.Entry<Integer, Future<Dungeon>>> it = prepared.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, Future<Dungeon>> entry = it.next();
+            if (Math.abs(entry.getKey() - level) != 1) {
+                entry.getValue().cancel(true);
+                it.remove();
+            }
+        }
+
+        prefetch(level + 1);
+        prefetch(level - 1);
+    }
+
+    /**
+     * Start preparing a level unless it is already prepared or in progress
+     */
+    public synchronized void prefetch(int level) {
+        if (level < 1 || prepared.containsKey(level) || Math.abs(level - currentLevel) != 1
+                || alreadyAvailable.test(level)) {
+            return;
+        }
+        LevelManifest.Entry entry = levels.apply(level);
+        if (entry == null) {
+            return;
+        }
+        if (prepared.size() >= maxPrepared) {
+            return;
+        }
+
+        prepared.put(level, executor.submit(() -> new Dungeon(entry)));
+    }
+
+    /**
+     * Hand over a prepared level, waiting for it if it is still being built.
+     *
+     * @return the dungeon, or null if the level was never prefetched or failed to load
+     */
+    public Dungeon take(int level) {
+        Future<Dungeon> future;
+        synchronized (this) {
+            future = prepared.remove(level);
+        }
+        if (future == null) {
+            return null;
+        }
+
+        try {
+            Dungeon dungeon = future.get();
+            return dungeon.getGrid() != null ? dungeon : null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | CancellationException e) {
+            System.out.println("❌ Prefetch of level " + level + " failed: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public synchronized void shutdown() {
+        for (Future<Dungeon> future : prepared.values()) {
+            future.cancel(true);
+        }
+        prepared.clear();
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Saved state of a visited level: the map in {@link BinaryLevelFormat},
+ * including items dropped or picked up, followed by the surviving monsters.
+ */
+public final class LevelSnapshot {
+    private static final int VERSION = 3;
+
+    private LevelSnapshot() {
+    }
+
+    public static void write(Dungeon dungeon, Path file) throws IOException {
+        ByteBuffer map = BinaryLevelFormat.encode(dungeon.toLevelData(), false);
+        List<Monster> monsters = dungeon.getMonsterManager().getAllMonsters();
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeShort(VERSION);
+            out.writeBoolean(dungeon.isLastLevel());
+            out.writeInt(map.remaining());
+            out.write(map.array(), map.position(), map.remaining());
+
+            writeMonsters(out, monsters);
+        }
+    }
+
+    public static Dungeon read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            int version = in.readUnsignedShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported level snapshot version " + version);
+            }
+            boolean isLastLevel = in.readBoolean();
+            byte[] map = new byte[in.readInt()];
+            in.readFully(map);
+            LevelData level = BinaryLevelFormat.read(ByteBuffer.wrap(map));
+
+            List<Monster> monsters = readMonsters(in);
+
+            return new Dungeon(level, monsters, isLastLevel);
+        }
+    }
+
+    static void writeMonsters(DataOutput out, List<Monster> monsters) throws IOException {
+        out.writeInt(monsters.size());
+        for (Monster monster : monsters) {
+            out.writeUTF(monster.getName());
+            out.writeUTF(monster.getType());
+            out.writeInt(monster.getX());
+            out.writeInt(monster.getY());
+            out.writeInt(monster.getHp());
+            out.writeInt(monster.getMaxHp());
+            out.writeInt(monster.getAttackPower());
+            out.writeInt(monster.getDefenseValue());
+            out.writeInt(monster.getExpValue());
+            out.writeChar(monster.getSymbol());
+            out.writeBoolean(monster.isHostile());
+            monster.getStatusEffects().write(out);
+            out.writeInt(monster.getSpeed());
+        }
+    }
+
+    static List<Monster> readMonsters(DataInput in) throws IOException {
+        int count = in.readInt();
+        List<Monster> monsters = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = in.readUTF();
+            String type = in.readUTF();
+            int x = in.readInt();
+            int y = in.readInt();
+            int hp = in.readInt();
+            int maxHp = in.readInt();
+            int attack = in.readInt();
+            int defense = in.readInt();
+            int exp = in.readInt();
+            char symbol = in.readChar();
+            boolean hostile = in.readBoolean();
+
+            Monster monster = new Monster(name, type, x, y, maxHp, attack, defense, exp, symbol, hostile);
+            monster.restoreState(hp);
+            monster.getStatusEffects().read(in);
+            monster.setSpeed(in.readInt());
+            monsters.add(monster);
+        }
+        return monsters;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example;
+
+import javax.swing.JComponent;
+
+/**
+ * A Swing view that can display the map and the status text below it
+ */
+public interface MapView {
+    /**
+     * Component to place in the game window
+     */
+    JComponent getComponent();
+
+    /**
+     * Draw a frame of tiles and the status text. Called on the event dispatch thread.
+     */
+    void render(char[][] frame, String statusText);
+}
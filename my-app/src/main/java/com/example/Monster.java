@@ -1,11 +1,9 @@
 package com.example;
 
-import java.util.Random;
-
 /**
  * Base Monster class that defines common properties and behaviors for all monsters
  */
-public class Monster {
+public class Monster implements Actor {
     private String name;
     private String type;
     private int x, y;
@@ -16,8 +14,13 @@ public class Monster {
     private int expValue;     // Experience granted when defeated
     private char symbol;      // Character representation on map
     private boolean isHostile;
-    private String statusEffect; // Current status effect (poisoned, stunned, etc.)
-    private int statusDuration;  // How many turns the status effect remains
+    private final StatusEffects effects = new StatusEffects();
+    private MonsterOccupancy occupancy;  // Told about every move while the monster is on a map
+    private int occupancyId = -1;
+    private int lastTurn;                // Turn its status effects are up to date to; dormant ones fall behind
+    private int expiryTurn = -1;         // Turn of its pending status expiry timer, if any
+    private int speed = NORMAL_SPEED;
+    private long ticket = -1;            // Its entry in the actor scheduler, or -1 while not scheduled
     
     public Monster(String name, String type, int x, int y, int hp, int attackPower, 
                   int defenseValue, int expValue, char symbol, boolean isHostile) {
@@ -32,8 +35,6 @@ public class Monster {
         this.expValue = expValue;
         this.symbol = symbol;
         this.isHostile = isHostile;
-        this.statusEffect = "normal";
-        this.statusDuration = 0;
     }
     
     
@@ -48,49 +49,110 @@ public class Monster {
     public int getExpValue() { return expValue; }
     public char getSymbol() { return symbol; }
     public boolean isHostile() { return isHostile; }
-    public String getStatusEffect() { return statusEffect; }
-    public int getStatusDuration() { return statusDuration; }
+    public String getStatusEffect() { return effects.describe(); }
+    public int getStatusDuration() { return effects.longestRemaining(); }
+    public StatusEffects getStatusEffects() { return effects; }
+    public boolean isStunned() { return effects.has(StatusEffect.STUNNED); }
+    @Override
+    public int getSpeed() { return speed; }
+    
+    public void setSpeed(int speed) { this.speed = speed; }
+    
+    public void setX(int x) { setPosition(x, y); }
+    public void setY(int y) { setPosition(x, y); }
+    
+    /**
+     * Move to a cell in one step, keeping the occupancy grid in sync
+     */
+    public void setPosition(int newX, int newY) {
+        int oldX = x;
+        int oldY = y;
+        x = newX;
+        y = newY;
+        if (occupancy != null && (oldX != newX || oldY != newY)) {
+            occupancy.moved(this, oldX, oldY);
+        }
+    }
+    
+    MonsterOccupancy getOccupancy() { return occupancy; }
+    int getOccupancyId() { return occupancyId; }
+    
+    void track(MonsterOccupancy occupancy, int id) {
+        this.occupancy = occupancy;
+        this.occupancyId = id;
+    }
     
-    public void setX(int x) { this.x = x; }
-    public void setY(int y) { this.y = y; }
+    /**
+     * Put back the hit points of a monster restored from a level snapshot
+     */
+    void restoreState(int hp) {
+        this.hp = hp;
+    }
     
     
     public void applyStatus(String status, int duration) {
-        this.statusEffect = status;
-        this.statusDuration = duration;
-        System.out.println(name + " is now " + status + " for " + duration + " turns!");
+        applyStatus(StatusEffect.fromLabel(status), duration);
     }
     
-    public void updateStatus() {
-        if (statusDuration > 0) {
-            statusDuration--;
-            
-            
-            switch (statusEffect) {
-                case "poisoned":
-                    takeDamage(1);
-                    break;
-                case "burning":
-                    takeDamage(2);
-                    break;
-                
-            }
-            
-            if (statusDuration == 0) {
-                statusEffect = "normal";
-                System.out.println(name + " recovered from status effect.");
+    public void applyStatus(StatusEffect effect, int duration) {
+        effects.apply(effect, duration);
+        if (duration == StatusEffects.PERMANENT) {
+            System.out.println(name + " is permanently " + effect.getLabel() + "!");
+        } else {
+            System.out.println(name + " is now " + effect.getLabel() + " for " + duration + " turns!");
+        }
+    }
+    
+    /**
+     * Bring status effects up to a turn: damage over time for every turn
+     * since the last update, and recovery from whatever ran out
+     */
+    public void updateStatus(int turn) {
+        int turns = turn - lastTurn;
+        lastTurn = turn;
+        if (effects.isEmpty() || turns <= 0) {
+            return;
+        }
+        int damage = effects.tick(turns, defenseValue);
+        if (damage > 0) {
+            hp -= damage;
+            System.out.println(name + " takes " + damage + " damage!");
+            if (hp <= 0) {
+                hp = 0;
+                System.out.println(name + " has been defeated!");
             }
         }
+        if (effects.anyExpired()) {
+            System.out.println(name + " recovered from status effect.");
+        }
+    }
+    
+    /**
+     * Like updateStatus, for turns spent dormant. Nobody is there to see
+     * it, so nothing is printed.
+     */
+    public void catchUp(int turn) {
+        int turns = turn - lastTurn;
+        lastTurn = turn;
+        if (effects.isEmpty() || turns <= 0) {
+            return;
+        }
+        hp = Math.max(0, hp - effects.tick(turns, defenseValue));
     }
     
+    int getLastTurn() { return lastTurn; }
+    void setLastTurn(int turn) { this.lastTurn = turn; }
+    int getExpiryTurn() { return expiryTurn; }
+    void setExpiryTurn(int turn) { this.expiryTurn = turn; }
+    long getTicket() { return ticket; }
+    void setTicket(long ticket) { this.ticket = ticket; }
+    
     
     public int calculateAttackDamage() {
-        Random rand = new Random();
+        int damage = attackPower + GameRandom.get(GameRandom.Stream.COMBAT).nextInt(3) - 1;
         
-        int damage = attackPower + rand.nextInt(3) - 1;
         
-        
-        if (statusEffect.equals("weakened")) {
+        if (effects.has(StatusEffect.WEAKENED)) {
             damage = Math.max(1, damage / 2);
         }
         
@@ -113,9 +175,9 @@ public class Monster {
     }
     
     
-    public void moveTowards(int targetX, int targetY, char[][] map) {
+    public void moveTowards(int targetX, int targetY, TileGrid grid) {
         
-        if (statusEffect.equals("stunned")) {
+        if (isStunned()) {
             return;
         }
         
@@ -124,27 +186,21 @@ public class Monster {
         int dy = Integer.compare(targetY, y);
         
         
-        if (dx != 0 && isValidMove(x + dx, y, map)) {
-            x += dx;
+        if (dx != 0 && isValidMove(x + dx, y, grid)) {
+            setPosition(x + dx, y);
         } 
         
-        else if (dy != 0 && isValidMove(x, y + dy, map)) {
-            y += dy;
+        else if (dy != 0 && isValidMove(x, y + dy, grid)) {
+            setPosition(x, y + dy);
         }
         
-        else if (isValidMove(x + dx, y + dy, map)) {
-            x += dx;
-            y += dy;
+        else if (isValidMove(x + dx, y + dy, grid)) {
+            setPosition(x + dx, y + dy);
         }
     }
     
-    private boolean isValidMove(int newX, int newY, char[][] map) {
-        if (newX < 0 || newY < 0 || newY >= map.length || newX >= map[0].length) {
-            return false;
-        }
-        
-        char tile = map[newY][newX];
-        return tile == '.' || tile == 'P';
+    private boolean isValidMove(int newX, int newY, TileGrid grid) {
+        return grid.isOpenFloor(newX, newY);
     }
     
     
@@ -164,6 +220,6 @@ public class Monster {
         
         return String.format("%s (%s) - %s [HP: %d/%d] %s", 
                               name, type, healthStatus, hp, maxHp,
-                              statusEffect.equals("normal") ? "" : "[" + statusEffect + "]");
+                              effects.isEmpty() ? "" : "[" + effects.describe() + "]");
     }
 }
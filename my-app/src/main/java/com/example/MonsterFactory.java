@@ -1,13 +1,11 @@
 package com.example;
 
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * Factory class to create different types of monsters
  */
 public class MonsterFactory {
-    private static final Random rand = new Random();
-    
     
     private static final String[] TYPES = {
         "Undead", "Beast", "Humanoid", "Construct", "Elemental", "Aberration"
@@ -39,10 +37,40 @@ public class MonsterFactory {
         'A'  // Aberration
     };
     
+    // Beasts are quick on their feet and constructs lumber; see Actor
+    private static final int[] SPEEDS_BY_TYPE = {
+        Actor.NORMAL_SPEED,           // Undead
+        Actor.NORMAL_SPEED * 3 / 2,   // Beast
+        Actor.NORMAL_SPEED,           // Humanoid
+        Actor.NORMAL_SPEED / 2,       // Construct
+        Actor.NORMAL_SPEED,           // Elemental
+        Actor.NORMAL_SPEED            // Aberration
+    };
+    
+    /**
+     * Give a new monster the usual speed of its type
+     */
+    private static Monster withTypeSpeed(Monster monster) {
+        for (int i = 0; i < TYPES.length; i++) {
+            if (TYPES[i].equals(monster.getType())) {
+                monster.setSpeed(SPEEDS_BY_TYPE[i]);
+            }
+        }
+        return monster;
+    }
+    
     /**
-     * Create a monster appropriate for the given dungeon level
+     * Create a monster appropriate for the given dungeon level, rolled on
+     * the game thread's monster stream
      */
     public static Monster createForLevel(int dungeonLevel, int x, int y) {
+        return createForLevel(dungeonLevel, x, y, GameRandom.get(GameRandom.Stream.MONSTERS));
+    }
+    
+    /**
+     * Create a monster appropriate for the given dungeon level from a given stream
+     */
+    public static Monster createForLevel(int dungeonLevel, int x, int y, RandomGenerator rand) {
         int typeIndex = rand.nextInt(TYPES.length);
         String type = TYPES[typeIndex];
         
@@ -72,13 +100,17 @@ public class MonsterFactory {
         int baseDefense = dungeonLevel / 2;
         int defense = baseDefense + rand.nextInt(1);
         int expValue = 5 * dungeonLevel + rand.nextInt(5 * dungeonLevel);
-        return new Monster(name, type, x, y, hp, attack, defense, expValue, symbol, true);
+        return withTypeSpeed(new Monster(name, type, x, y, hp, attack, defense, expValue, symbol, true));
     }
     
     /**
      * Create a specific type of monster
      */
     public static Monster createSpecificType(String specificType, int x, int y, int level) {
+        return createSpecificType(specificType, x, y, level, GameRandom.get(GameRandom.Stream.MONSTERS));
+    }
+    
+    public static Monster createSpecificType(String specificType, int x, int y, int level, RandomGenerator rand) {
         int typeIndex = 0;
         for (int i = 0; i < TYPES.length; i++) {
             if (TYPES[i].equals(specificType)) {
@@ -143,13 +175,17 @@ public class MonsterFactory {
         attack += rand.nextInt(2);
         defense += rand.nextInt(level / 2);
         
-        return new Monster(name, specificType, x, y, hp, attack, defense, exp, symbol, true);
+        return withTypeSpeed(new Monster(name, specificType, x, y, hp, attack, defense, exp, symbol, true));
     }
     
     /**
      * Create a specific named monster (for bosses, etc.)
      */
     public static Monster createBoss(String name, int x, int y, int level) {
+        return createBoss(name, x, y, level, GameRandom.get(GameRandom.Stream.MONSTERS));
+    }
+    
+    public static Monster createBoss(String name, int x, int y, int level, RandomGenerator rand) {
         
         String type;
         char symbol;
@@ -180,11 +216,11 @@ public class MonsterFactory {
         int defense = 2 + level;
         int exp = 20 * level;
         
-        Monster boss = new Monster(name, type, x, y, hp, attack, defense, exp, symbol, true);
+        Monster boss = withTypeSpeed(new Monster(name, type, x, y, hp, attack, defense, exp, symbol, true));
         
         // Bosses may have special status resistance
         if (rand.nextBoolean()) {
-            boss.applyStatus("status resistant", 999); // Permanent effect
+            boss.applyStatus(StatusEffect.RESISTANT, StatusEffects.PERMANENT);
         }
         
         return boss;
@@ -1,10 +1,12 @@
 package com.example;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
 
 
 
@@ -12,49 +14,87 @@ import java.util.Random;
  * Manages all monsters in the dungeon
  */
 public class MonsterManager {
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 2048;   // Monsters before decisions are made in parallel
+    public static final int DEFAULT_ACTIVITY_RADIUS = 30;
+    
+    private static final int STAY = -1;
+    private static final int ATTACK = -2;
+    private static final int HUNT = -3;     // Beyond the flow field; the path planner picks the step
+    private static final int DECIDE_BATCH = 512;
+    
     private List<Monster> monsters = new ArrayList<>();
-    private Random rand = new Random();
+    private MonsterOccupancy occupancy;
+    private final FlowField flowField = new FlowField(FlowField.DEFAULT_RADIUS);
+    private Supplier<PathPlanner> pathPlanner = () -> null;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+    private int[] intents = new int[0];   // Each due monster's decision, by position in due
+    private int activityRadius = DEFAULT_ACTIVITY_RADIUS;
+    private int turn;
+    private final ActorScheduler scheduler = new ActorScheduler();
+    private long now;                      // Scheduler time of the player's last action
+    private final List<Monster> due = new ArrayList<>();      // Monsters acting at the same moment
+    private final TimerWheel<Monster> expiries = new TimerWheel<>(0);   // When awake monsters' status effects run out
+    private final List<Monster> expiring = new ArrayList<>();
+    private final List<Monster> nearby = new ArrayList<>();
+    private final List<Monster> dead = new ArrayList<>();
     
     public MonsterManager() {
         
     }
     
     /**
-     * Populate the dungeon with monsters based on level
+     * Use a new map; the occupancy grid is rebuilt for it
      */
-    public void populateDungeon(Dungeon dungeon, int monsterCount) {
-        char[][] map = dungeon.getMap();
-        int level = dungeon.getLevelNumber();
-        
-        monsters.clear();
-        
-       
-        List<int[]> validPositions = new ArrayList<>();
-        for (int y = 0; y < map.length; y++) {
-            for (int x = 0; x < map[0].length; x++) {
-                if (map[y][x] == '.') {
-                    validPositions.add(new int[]{x, y});
-                }
-            }
+    public void setGrid(TileGrid grid) {
+        occupancy = new MonsterOccupancy(grid);
+        for (Monster monster : monsters) {
+            occupancy.add(monster);
         }
+    }
+    
+    private void track(Monster monster) {
+        monsters.add(monster);
+        occupancy.add(monster);
+        monster.setLastTurn(turn);
+        monster.setTicket(-1);
+    }
+    
+    private void clearMonsters() {
+        for (Monster monster : monsters) {
+            occupancy.remove(monster);
+        }
+        monsters.clear();
+        scheduler.clear();
+    }
+    
+    /**
+     * Populate the dungeon with monsters based on level, drawing from the level's own stream
+     */
+    public void populateDungeon(Dungeon dungeon, int monsterCount, RandomGenerator rand) {
+        FlatTileGrid grid = dungeon.getLevelGrid();
+        int level = dungeon.getLevelNumber();
+        int[] playerStart = dungeon.getPlayerStartPosition();
         
-        Collections.shuffle(validPositions);
-        
-        monsterCount = Math.min(monsterCount, validPositions.size());
+        clearMonsters();
         
+        // Every open floor cell except the player's start is a candidate
+        FreeCellIndex freeCells = grid.freeCells();
+        int startCell = grid.index(playerStart[0], playerStart[1]);
         
         for (int i = 0; i < monsterCount - 1; i++) {
-            if (validPositions.isEmpty()) break;
+            int cell = pickSpawnCell(freeCells, startCell, rand);
+            if (cell < 0) break;
             
-            int[] pos = validPositions.remove(0);
-            Monster monster = MonsterFactory.createForLevel(level, pos[0], pos[1]);
-            monsters.add(monster);
+            Monster monster = MonsterFactory.createForLevel(level, grid.xOf(cell), grid.yOf(cell), rand);
+            track(monster);
         }
         
         // Maybe add a boss on higher levels (level 2+)
         // Downgraded for demonstration purposes. 0.3 -> 0.1
-        if (level >= 2 && !validPositions.isEmpty() && rand.nextDouble() < 0.1) {
-            int[] pos = validPositions.remove(0);
+        int bossCell = pickSpawnCell(freeCells, startCell, rand);
+        if (level >= 2 && bossCell >= 0 && rand.nextDouble() < 0.1) {
+            int[] pos = {grid.xOf(bossCell), grid.yOf(bossCell)};
             String[] bossNames = {
                 "Grimclaw the Destroyer", 
                 "Nightwhisper", 
@@ -66,68 +106,366 @@ public class MonsterManager {
             
             Monster boss = MonsterFactory.createBoss(
                 bossNames[rand.nextInt(bossNames.length)], 
-                pos[0], pos[1], level
+                pos[0], pos[1], level, rand
             );
-            monsters.add(boss);
+            track(boss);
             System.out.println("🔥 WARNING: Boss " + boss.getName() + " has appeared on level " + level + "!");
         }
     }
     
     /**
-     * Handle monster turns
+     * Uniformly random free cell other than the excluded one, or -1 if there is none
+     */
+    private int pickSpawnCell(FreeCellIndex freeCells, int excluded, RandomGenerator rand) {
+        int available = freeCells.size() - (freeCells.contains(excluded) ? 1 : 0);
+        if (available <= 0) {
+            return -1;
+        }
+        int cell;
+        do {
+            cell = freeCells.random(rand);
+        } while (cell == excluded);
+        return cell;
+    }
+    
+    /**
+     * Replace the monsters with previously saved ones and mark them on the grid
+     */
+    public void restore(List<Monster> saved) {
+        clearMonsters();
+        addAll(saved);
+    }
+    
+    /**
+     * Start managing more monsters at their current positions
+     */
+    public void addAll(List<Monster> arrived) {
+        for (Monster monster : arrived) {
+            track(monster);
+        }
+    }
+    
+    /**
+     * Stop managing the living monsters inside a rectangle (max exclusive)
+     * and return them; dead ones are dropped
      */
-    public void updateMonsters(Player player, char[][] map) {
+    public List<Monster> removeWithin(int minX, int minY, int maxX, int maxY) {
+        List<Monster> removed = new ArrayList<>();
         Iterator<Monster> iterator = monsters.iterator();
         while (iterator.hasNext()) {
             Monster monster = iterator.next();
-    
-            if (!monster.isAlive()) {
+            int x = monster.getX();
+            int y = monster.getY();
+            if (x >= minX && y >= minY && x < maxX && y < maxY) {
                 iterator.remove();
+                occupancy.remove(monster);
+                monster.setTicket(-1);
+                if (monster.isAlive()) {
+                    removed.add(monster);
+                }
+            }
+        }
+        return removed;
+    }
+    
+    /**
+     * Handle monster turns.
+     *
+     * Monsters act on their own clocks in the actor scheduler: each waits
+     * ActorScheduler.delay ticks between actions, so a fast monster can act
+     * twice while the player acts once and a slow one every other turn.
+     * Every call lets the monsters due before the player's next action take
+     * their turns, earliest first, and looks at no one else.
+     *
+     * Only monsters within the activity radius of the player, or further
+     * out but in sight of them, are scheduled at all; the rest are dormant
+     * and cost nothing. A monster that wakes up catches up on its status
+     * effects for the turns it slept in one go.
+     *
+     * Monsters due at the same moment take their turns one after another,
+     * each seeing the moves before it. Large groups on ordinary levels split
+     * the turn in two: every monster decides what to do in parallel against
+     * the map as it stood before the group moved, then the decisions are
+     * carried out in order, so a monster whose chosen cell was taken by an
+     * earlier one stays put. The outcome does not depend on the number of
+     * threads.
+     */
+    public void updateMonsters(Player player, TileGrid grid) {
+        turn++;
+        expireStatus();
+        int playerX = player.getX();
+        int playerY = player.getY();
+        wakeNearby(playerX, playerY, grid);
+        
+        // One search per turn serves every chasing monster
+        flowField.update(grid, playerX, playerY);
+        
+        long playerNext = now + ActorScheduler.delay(player);
+        scheduler.schedule(player, playerNext);
+        while (scheduler.peek() != player) {
+            long time = scheduler.peekTime();
+            collectDue(time, player, grid);
+            takeTurns(player, grid);
+            for (Monster monster : due) {
+                if (monster.isAlive()) {
+                    monster.setTicket(scheduler.schedule(monster, time + ActorScheduler.delay(monster)));
+                } else {
+                    dead.add(monster);
+                }
+            }
+            removeDead();
+        }
+        scheduler.poll();
+        now = playerNext;
+    }
+    
+    /**
+     * Schedule the dormant monsters that have come into range, starting a
+     * full delay from now. Sight reaches twice as far as the activity radius.
+     * Monsters are only ever hurt near the player, so the dead turn up here too.
+     */
+    private void wakeNearby(int playerX, int playerY, TileGrid grid) {
+        occupancy.allWithinRadius(playerX, playerY, 2 * activityRadius, nearby);
+        for (Monster monster : nearby) {
+            if (monster.isAlive() && (monster.getTicket() >= 0 || !inRange(monster, playerX, playerY, grid))) {
                 continue;
             }
+            // Its first action this turn brings the status up to date from here
+            monster.catchUp(turn - 1);
+            if (monster.isAlive()) {
+                monster.setTicket(scheduler.schedule(monster, now + ActorScheduler.delay(monster)));
+            } else {
+                dead.add(monster);
+            }
+        }
+        removeDead();
+    }
     
-            monster.updateStatus();
+    /**
+     * Fill due with the monsters scheduled for a moment, dropping stale
+     * entries and sending monsters that have fallen out of range to sleep
+     */
+    private void collectDue(long time, Player player, TileGrid grid) {
+        due.clear();
+        while (scheduler.peek() != player && scheduler.peekTime() == time) {
+            long ticket = scheduler.peekTicket();
+            Monster monster = (Monster) scheduler.poll();
+            if (monster.getTicket() != ticket) {
+                continue;
+            }
+            monster.setTicket(-1);
+            if (!monster.isAlive()) {
+                dead.add(monster);
+            } else if (inRange(monster, player.getX(), player.getY(), grid)) {
+                due.add(monster);
+            }
+            // Otherwise dormant from now on, and its status effects wait until it wakes
+
+        }
+    }
     
-            if (monster.getStatusEffect().equals("stunned")) {
+    /**
+     * Bring the awake monsters whose status effects run out this turn up
+     * to date, so they recover on time even if they are not due to act
+     */
+    private void expireStatus() {
+        expiries.advance(turn, expiring);
+        for (Monster monster : expiring) {
+            // Stale if it was rescheduled, fell asleep or left the level since
+            if (monster.getExpiryTurn() != turn || monster.getTicket() < 0 || monster.getOccupancy() != occupancy) {
                 continue;
             }
+            monster.updateStatus(turn);
+            if (monster.isAlive()) {
+                scheduleExpiry(monster);
+            } else {
+                dead.add(monster);
+            }
+        }
+        removeDead();
+    }
+    
+    /**
+     * Set a timer for the next status effect of an up to date monster to run out
+     */
+    private void scheduleExpiry(Monster monster) {
+        int turns = monster.getStatusEffects().turnsUntilExpiry();
+        if (turns > 0 && monster.getExpiryTurn() != turn + turns) {
+            monster.setExpiryTurn(turn + turns);
+            expiries.schedule(monster, turn + turns);
+        }
+    }
+    
+    private boolean inRange(Monster monster, int playerX, int playerY, TileGrid grid) {
+        int distance = Math.max(Math.abs(monster.getX() - playerX), Math.abs(monster.getY() - playerY));
+        return distance <= activityRadius
+            || distance <= 2 * activityRadius && grid.hasLineOfSight(monster.getX(), monster.getY(), playerX, playerY);
+    }
     
-            int monsterX = monster.getX();
-            int monsterY = monster.getY();
-            int playerX = player.getX();
-            int playerY = player.getY();
-    
-            boolean canAttack = Math.abs(monsterX - playerX) <= 1 && 
-                               Math.abs(monsterY - playerY) <= 1;
-    
-            if (canAttack && monster.isHostile()) {
-                int damage = monster.calculateAttackDamage();
-                player.takeDamage(damage);
-                System.out.println(monster.getName() + " attacks you for " + damage + " damage!");
-            } else if (monster.isHostile()) {
-                // Move towards player only if the path is clear
-                int dx = Integer.compare(playerX, monsterX);
-                int dy = Integer.compare(playerY, monsterY);
-    
-                int newX = monsterX + dx;
-                int newY = monsterY + dy;
-    
-                if (newX >= 0 && newY >= 0 && newY < map.length && newX < map[0].length && map[newY][newX] == '.') {
-                    // Check if the new position is not occupied by another monster
-                    boolean positionOccupied = false;
-                    for (Monster otherMonster : monsters) {
-                        if (otherMonster.getX() == newX && otherMonster.getY() == newY && otherMonster.isAlive()) {
-                            positionOccupied = true;
-                            break;
-                        }
-                    }
-    
-                    if (!positionOccupied) {
-                        monster.setX(newX);
-                        monster.setY(newY);
-                    }
+    /**
+     * Let every due monster decide and act
+     */
+    private void takeTurns(Player player, TileGrid grid) {
+        int count = due.size();
+        // Reading a chunked grid pages chunks in, so it stays on one thread
+        if (count >= parallelThreshold && !(grid instanceof ChunkedTileGrid)) {
+            if (intents.length < count) {
+                intents = new int[count];
+            }
+            pool.invoke(new DecideTask(player.getX(), player.getY(), grid, 0, count));
+            for (int i = 0; i < count; i++) {
+                act(due.get(i), intents[i], player, grid);
+            }
+        } else {
+            for (Monster monster : due) {
+                act(monster, decide(monster, player.getX(), player.getY(), grid), player, grid);
+            }
+        }
+    }
+    
+    private void removeDead() {
+        if (dead.isEmpty()) {
+            return;
+        }
+        for (Monster monster : dead) {
+            occupancy.remove(monster);
+            monster.setTicket(-1);
+        }
+        // One pass over the list for all of them; removed monsters no longer have an occupancy
+        monsters.removeIf(monster -> monster.getOccupancy() == null);
+        dead.clear();
+    }
+    
+    /**
+     * Simulate monsters within this many cells of the player
+     */
+    public void setActivityRadius(int radius) {
+        this.activityRadius = radius;
+    }
+    
+    /**
+     * Where to get the level's path planner, for monsters hunting the
+     * player from beyond the flow field; it may supply null
+     */
+    public void setPathPlanner(Supplier<PathPlanner> pathPlanner) {
+        this.pathPlanner = pathPlanner;
+    }
+    
+    /**
+     * Use a different pool for the parallel decision phase, and the
+     * population from which it is used
+     */
+    public void setParallel(ForkJoinPool pool, int threshold) {
+        this.pool = pool;
+        this.parallelThreshold = threshold;
+    }
+    
+    /**
+     * What a monster wants to do this turn: ATTACK, STAY, HUNT or a
+     * direction from FlowField. Only reads shared state, so it is safe to
+     * call from several threads at once.
+     */
+    private int decide(Monster monster, int playerX, int playerY, TileGrid grid) {
+        if (!monster.isHostile()) {
+            return STAY;
+        }
+        int monsterX = monster.getX();
+        int monsterY = monster.getY();
+        if (Math.abs(monsterX - playerX) <= 1 && Math.abs(monsterY - playerY) <= 1) {
+            return ATTACK;
+        }
+        
+        if (flowField.distanceAt(monsterX, monsterY) != FlowField.UNREACHED) {
+            // Walk down the distance field, around walls and other monsters
+            return flowField.stepFrom(monsterX, monsterY);
+        }
+        
+        // Too far away for the field: plan a path when acting, as the planner is not thread-safe
+        return HUNT;
+    }
+    
+    /**
+     * Step for a monster beyond the flow field: along a planned path where
+     * the level has a planner, otherwise straight for the player if the way
+     * is clear
+     */
+    private int hunt(Monster monster, int playerX, int playerY, TileGrid grid) {
+        int monsterX = monster.getX();
+        int monsterY = monster.getY();
+        PathPlanner planner = pathPlanner.get();
+        if (planner != null) {
+            int next = planner.nextStep(monsterX, monsterY, playerX, playerY);
+            if (next < 0) {
+                return STAY;
+            }
+            return FlowField.direction(next % grid.getWidth() - monsterX, next / grid.getWidth() - monsterY);
+        }
+        
+        int dx = Integer.compare(playerX, monsterX);
+        int dy = Integer.compare(playerY, monsterY);
+        
+        // Only step onto empty floor; the occupancy layer rules out other monsters
+        if (grid.isOpenFloor(monsterX + dx, monsterY + dy)) {
+            return FlowField.direction(dx, dy);
+        }
+        return STAY;
+    }
+    
+    /**
+     * Carry out a monster's decision for the turn
+     */
+    private void act(Monster monster, int intent, Player player, TileGrid grid) {
+        monster.updateStatus(turn);
+        scheduleExpiry(monster);
+        
+        if (!monster.isAlive() || monster.isStunned()) {
+            return;
+        }
+        
+        if (intent == HUNT) {
+            intent = hunt(monster, player.getX(), player.getY(), grid);
+        }
+        if (intent == ATTACK) {
+            int damage = monster.calculateAttackDamage();
+            player.takeDamage(damage);
+            System.out.println(monster.getName() + " attacks you for " + damage + " damage!");
+        } else if (intent >= 0) {
+            int newX = monster.getX() + FlowField.DX[intent];
+            int newY = monster.getY() + FlowField.DY[intent];
+            // Someone may have got there first
+            if (grid.isOpenFloor(newX, newY)) {
+                monster.setPosition(newX, newY);
+            }
+        }
+    }
+    
+    /**
+     * Decide for a range of the due monsters, splitting it across the pool
+     */
+    private class DecideTask extends RecursiveAction {
+        private final int playerX, playerY;
+        private final TileGrid grid;
+        private final int from, to;
+        
+        DecideTask(int playerX, int playerY, TileGrid grid, int from, int to) {
+            this.playerX = playerX;
+            this.playerY = playerY;
+            this.grid = grid;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from <= DECIDE_BATCH) {
+                for (int i = from; i < to; i++) {
+                    intents[i] = decide(due.get(i), playerX, playerY, grid);
                 }
+                return;
             }
+            int middle = (from + to) >>> 1;
+            invokeAll(new DecideTask(playerX, playerY, grid, from, middle),
+                      new DecideTask(playerX, playerY, grid, middle, to));
         }
     }
     
@@ -135,21 +473,22 @@ public class MonsterManager {
      * Check if a monster is at the given position
      */
     public Monster getMonsterAt(int x, int y) {
-        for (Monster monster : monsters) {
-            if (monster.getX() == x && monster.getY() == y) {
-                return monster;
-            }
-        }
-        return null;
+        return occupancy.monsterAt(x, y);
     }
     
     /**
-     * Render monsters on map (call before displaying)
+     * Render the monsters inside the camera onto a camera-sized frame
      */
-    public void renderMonstersOnMap(char[][] mapCopy) {
-        for (Monster monster : monsters) {
-            if (monster.isAlive()) {
-                mapCopy[monster.getY()][monster.getX()] = monster.getSymbol();
+    public void renderMonstersInView(Camera camera, char[][] frame) {
+        // Look up the cells in view rather than walking every monster on the level
+        int originX = camera.getOriginX();
+        int originY = camera.getOriginY();
+        for (int row = 0; row < camera.getHeight(); row++) {
+            for (int col = 0; col < camera.getWidth(); col++) {
+                Monster monster = occupancy.monsterAt(originX + col, originY + row);
+                if (monster != null && monster.isAlive()) {
+                    frame[row][col] = monster.getSymbol();
+                }
             }
         }
     }
@@ -163,15 +502,32 @@ public class MonsterManager {
      */
     public List<Monster> getVisibleMonsters(int playerX, int playerY, int visibilityRange) {
         List<Monster> visible = new ArrayList<>();
-        for (Monster monster : monsters) {
-            int dx = Math.abs(monster.getX() - playerX);
-            int dy = Math.abs(monster.getY() - playerY);
-            int distance = Math.max(dx, dy); 
-            
-            if (distance <= visibilityRange) {
-                visible.add(monster);
-            }
-        }
+        monstersWithin(playerX, playerY, visibilityRange, visible);
         return visible;
     }
+    
+    /**
+     * Fill out with the living monsters within a Chebyshev radius of a cell;
+     * reuse the list between calls to avoid allocating
+     *
+     * @return the number of monsters found
+     */
+    public int monstersWithin(int x, int y, int radius, List<Monster> out) {
+        return occupancy.withinRadius(x, y, radius, out);
+    }
+    
+    /**
+     * Fill out with the living monsters inside a rectangle (max exclusive)
+     */
+    public int monstersInRect(int minX, int minY, int maxX, int maxY, List<Monster> out) {
+        return occupancy.within(minX, minY, maxX, maxY, out);
+    }
+    
+    /**
+     * Fill out with up to k living monsters nearest to a cell, closest first,
+     * ignoring any further away than maxRadius
+     */
+    public int nearestMonsters(int x, int y, int k, int maxRadius, List<Monster> out) {
+        return occupancy.nearest(x, y, k, maxRadius, out);
+    }
 }
@@ -0,0 +1,339 @@
+package com.example;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Which monster stands on each cell. Monsters get a small integer id and
+ * every cell holds the id of its occupant, so finding the monster at a
+ * position is one array read. Monsters report their own moves, and the
+ * grid's MONSTER flag is kept in step.
+ *
+ * Monsters are also filed in coarse square buckets, so area queries only
+ * visit the buckets they overlap. Queries fill a list supplied by the caller
+ * and skip dead monsters.
+ *
+ * Chunked grids are too large for an array per cell and use maps instead.
+ */
+public class MonsterOccupancy {
+    private static final int EMPTY = -1;
+    static final int BUCKET_SHIFT = 3;
+    static final int BUCKET_SIZE = 1 << BUCKET_SHIFT;
+
+    private final TileGrid grid;
+    private final int[] cells;                 // Occupant id per cell, for flat grids
+    private final Map<Long, Integer> sparse;   // Occupant id by position, for chunked grids
+    private final int bucketsWide;
+    private final Bucket[] buckets;            // Row-major, for flat grids
+    private final Map<Long, Bucket> sparseBuckets;
+    private Monster[] byId = new Monster[16];
+    private int[] freeIds = new int[16];
+    private int freeCount;
+    private int nextId;
+    private int queryX, queryY;
+    private final Comparator<Monster> byDistance = Comparator.comparingInt(monster -> distance(monster, queryX, queryY));
+
+    public MonsterOccupancy(TileGrid grid) {
+        this.grid = grid;
+        if (grid instanceof ChunkedTileGrid) {
+            cells = null;
+            sparse = new HashMap<>();
+            bucketsWide = 0;
+            buckets = null;
+            sparseBuckets = new HashMap<>();
+        } else {
+            cells = new int[grid.getWidth() * grid.getHeight()];
+            Arrays.fill(cells, EMPTY);
+            sparse = null;
+            bucketsWide = (grid.getWidth() + BUCKET_SIZE - 1) >> BUCKET_SHIFT;
+            buckets = new Bucket[bucketsWide * ((grid.getHeight() + BUCKET_SIZE - 1) >> BUCKET_SHIFT)];
+            sparseBuckets = null;
+        }
+    }
+
+    /**
+     * Start tracking a monster at its current position
+     */
+    public void add(Monster monster) {
+        int id;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else {
+            id = nextId++;
+            if (id == byId.length) {
+                byId = Arrays.copyOf(byId, id * 2);
+            }
+        }
+        byId[id] = monster;
+        monster.track(this, id);
+        occupy(monster.getX(), monster.getY(), id);
+        bucket(monster.getX(), monster.getY()).add(id);
+    }
+
+    /**
+     * Stop tracking a monster and clear its cell
+     */
+    public void remove(Monster monster) {
+        if (monster.getOccupancy() != this) {
+            return;
+        }
+        int id = monster.getOccupancyId();
+        vacate(monster.getX(), monster.getY(), id);
+        unfile(monster.getX(), monster.getY(), id);
+        byId[id] = null;
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+        }
+        freeIds[freeCount++] = id;
+        monster.track(null, -1);
+    }
+
+    /**
+     * Called by a tracked monster after it changes position
+     */
+    void moved(Monster monster, int oldX, int oldY) {
+        int id = monster.getOccupancyId();
+        vacate(oldX, oldY, id);
+        occupy(monster.getX(), monster.getY(), id);
+        if (oldX >> BUCKET_SHIFT != monster.getX() >> BUCKET_SHIFT
+            || oldY >> BUCKET_SHIFT != monster.getY() >> BUCKET_SHIFT) {
+            unfile(oldX, oldY, id);
+            bucket(monster.getX(), monster.getY()).add(id);
+        }
+    }
+
+    /**
+     * The monster on a cell, or null
+     */
+    public Monster monsterAt(int x, int y) {
+        if (!grid.inBounds(x, y)) {
+            return null;
+        }
+        int id = idAt(x, y);
+        return id == EMPTY ? null : byId[id];
+    }
+
+    /**
+     * Live monsters inside a rectangle (max exclusive), in no particular order
+     *
+     * @return the number of monsters written to out, which is cleared first
+     */
+    public int within(int minX, int minY, int maxX, int maxY, List<Monster> out) {
+        return collect(minX, minY, maxX, maxY, false, out);
+    }
+
+    /**
+     * Live monsters within a Chebyshev radius of a cell, in no particular order
+     */
+    public int withinRadius(int x, int y, int radius, List<Monster> out) {
+        return within(x - radius, y - radius, x + radius + 1, y + radius + 1, out);
+    }
+
+    /**
+     * Every tracked monster within a radius, including dead ones still on the map
+     */
+    int allWithinRadius(int x, int y, int radius, List<Monster> out) {
+        return collect(x - radius, y - radius, x + radius + 1, y + radius + 1, true, out);
+    }
+
+    private int collect(int minX, int minY, int maxX, int maxY, boolean includeDead, List<Monster> out) {
+        out.clear();
+        if (minX >= maxX || minY >= maxY) {
+            return 0;
+        }
+        for (int by = minY >> BUCKET_SHIFT; by <= (maxY - 1) >> BUCKET_SHIFT; by++) {
+            for (int bx = minX >> BUCKET_SHIFT; bx <= (maxX - 1) >> BUCKET_SHIFT; bx++) {
+                Bucket bucket = bucketAt(bx, by);
+                if (bucket == null) {
+                    continue;
+                }
+                for (int i = 0; i < bucket.size; i++) {
+                    Monster monster = byId[bucket.ids[i]];
+                    int x = monster.getX();
+                    int y = monster.getY();
+                    if ((includeDead || monster.isAlive()) && x >= minX && y >= minY && x < maxX && y < maxY) {
+                        out.add(monster);
+                    }
+                }
+            }
+        }
+        return out.size();
+    }
+
+    /**
+     * Up to k live monsters closest to a cell by Chebyshev distance and no
+     * further than maxRadius, nearest first. Buckets are searched in rings
+     * outward until no closer monster can turn up.
+     */
+    public int nearest(int x, int y, int k, int maxRadius, List<Monster> out) {
+        out.clear();
+        if (k <= 0) {
+            return 0;
+        }
+        queryX = x;
+        queryY = y;
+        int centerX = x >> BUCKET_SHIFT;
+        int centerY = y >> BUCKET_SHIFT;
+        int maxRing = (maxRadius >> BUCKET_SHIFT) + 1;
+        if (buckets != null) {
+            maxRing = Math.min(maxRing, Math.max(bucketsWide, buckets.length / bucketsWide));
+        }
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int by = centerY - ring; by <= centerY + ring; by++) {
+                // Only the outline of the ring; the inside was covered already
+                int step = (by == centerY - ring || by == centerY + ring) ? 1 : 2 * ring;
+                for (int bx = centerX - ring; bx <= centerX + ring; bx += step) {
+                    collectNear(bucketAt(bx, by), x, y, maxRadius, out);
+                }
+            }
+            // Anything in the next ring is further away than this
+            if (out.size() >= k) {
+                out.sort(byDistance);
+                if (distance(out.get(k - 1), x, y) <= ring * BUCKET_SIZE) {
+                    break;
+                }
+            }
+        }
+        out.sort(byDistance);
+        while (out.size() > k) {
+            out.remove(out.size() - 1);
+        }
+        return out.size();
+    }
+
+    private void collectNear(Bucket bucket, int x, int y, int maxRadius, List<Monster> out) {
+        if (bucket == null) {
+            return;
+        }
+        for (int i = 0; i < bucket.size; i++) {
+            Monster monster = byId[bucket.ids[i]];
+            if (monster.isAlive() && distance(monster, x, y) <= maxRadius) {
+                out.add(monster);
+            }
+        }
+    }
+
+    private static int distance(Monster monster, int x, int y) {
+        return Math.max(Math.abs(monster.getX() - x), Math.abs(monster.getY() - y));
+    }
+
+    /**
+     * The bucket covering a cell, created on first use
+     */
+    private Bucket bucket(int x, int y) {
+        int bx = x >> BUCKET_SHIFT;
+        int by = y >> BUCKET_SHIFT;
+        Bucket bucket = bucketAt(bx, by);
+        if (bucket == null) {
+            bucket = new Bucket();
+            if (buckets != null) {
+                buckets[by * bucketsWide + bx] = bucket;
+            } else {
+                sparseBuckets.put(ChunkedTileGrid.key(bx, by), bucket);
+            }
+        }
+        return bucket;
+    }
+
+    /**
+     * Take an id out of the bucket covering a cell. Empty sparse buckets are
+     * dropped, so the map only holds buckets with monsters in them.
+     */
+    private void unfile(int x, int y, int id) {
+        int bx = x >> BUCKET_SHIFT;
+        int by = y >> BUCKET_SHIFT;
+        Bucket bucket = bucketAt(bx, by);
+        if (bucket == null) {
+            return;
+        }
+        bucket.remove(id);
+        if (bucket.size == 0 && sparseBuckets != null) {
+            sparseBuckets.remove(ChunkedTileGrid.key(bx, by));
+        }
+    }
+
+    /**
+     * Buckets currently allocated, for tests
+     */
+    int bucketCount() {
+        if (sparseBuckets != null) {
+            return sparseBuckets.size();
+        }
+        int count = 0;
+        for (Bucket bucket : buckets) {
+            if (bucket != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private Bucket bucketAt(int bx, int by) {
+        if (buckets != null) {
+            if (bx < 0 || by < 0 || bx >= bucketsWide || by * bucketsWide >= buckets.length) {
+                return null;
+            }
+            return buckets[by * bucketsWide + bx];
+        }
+        return sparseBuckets.get(ChunkedTileGrid.key(bx, by));
+    }
+
+    /**
+     * Ids of the monsters in one bucket; removal moves the last id into the gap
+     */
+    private static class Bucket {
+        int[] ids = new int[4];
+        int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        void remove(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[--size];
+                    return;
+                }
+            }
+        }
+    }
+
+    private int idAt(int x, int y) {
+        if (cells != null) {
+            return cells[y * grid.getWidth() + x];
+        }
+        return sparse.getOrDefault(ChunkedTileGrid.key(x, y), EMPTY);
+    }
+
+    private void occupy(int x, int y, int id) {
+        if (!grid.inBounds(x, y)) {
+            return;
+        }
+        if (cells != null) {
+            cells[y * grid.getWidth() + x] = id;
+        } else {
+            sparse.put(ChunkedTileGrid.key(x, y), id);
+        }
+        grid.setMonster(x, y, true);
+    }
+
+    private void vacate(int x, int y, int id) {
+        // Leave the cell alone if someone else has since been put there
+        if (!grid.inBounds(x, y) || idAt(x, y) != id) {
+            return;
+        }
+        if (cells != null) {
+            cells[y * grid.getWidth() + x] = EMPTY;
+        } else {
+            sparse.remove(ChunkedTileGrid.key(x, y));
+        }
+        grid.setMonster(x, y, false);
+    }
+}
@@ -0,0 +1,735 @@
+package com.example;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Long-range paths over a level with hierarchical pathfinding (HPA*).
+ *
+ * The map is cut into square clusters. Where two clusters share a stretch of
+ * open border, a pair of entrance cells is placed across it, and the walking
+ * distance between the entrances of each cluster is worked out once and
+ * cached. A query searches this small abstract graph of entrances, then
+ * refines each hop into cells with a search bounded by one cluster.
+ *
+ * Moves are 8-way at uniform cost. Paths stay close to, but are not always
+ * exactly, the shortest. Only walls and other terrain block movement, so the
+ * planner listens for terrain changes and drops just the clusters whose
+ * entrances or distances they affect; items and occupants do not matter.
+ *
+ * Usage: PathPlanner [width] [height] [queries] [seed] [cluster-size] runs
+ * a benchmark against plain A* on a generated level.
+ */
+public class PathPlanner implements TileGrid.TerrainListener {
+    public static final int DEFAULT_CLUSTER_SIZE = 32;
+
+    private static final int UNREACHED = Integer.MAX_VALUE;
+    private static final int LONG_ENTRANCE = 6;   // Open stretches this long get an entrance at each end
+    private static final int[] DX = {1, -1, 0, 0, 1, 1, -1, -1};
+    private static final int[] DY = {0, 0, 1, -1, 1, -1, 1, -1};
+
+    private final FlatTileGrid grid;
+    private final int width;
+    private final int height;
+    private final int clusterSize;
+    private final int clustersWide;
+    private final int clustersHigh;
+    private final Cluster[] clusters;   // Built on first use, dropped when their terrain changes
+
+    // Nodes of the abstract graph: the entrances of built clusters, plus the
+    // two ends of the current query. Ids are handed out when a cluster is
+    // built, so a search over them touches small arrays rather than
+    // map-sized ones.
+    private static final int START = 0;
+    private static final int GOAL = 1;
+    private int nodeCount = 2;
+    private int droppedNodes;           // Ids of dropped clusters, reclaimed all at once
+    private int[] nodeCell = new int[1024];
+    private int[] nodeX = new int[1024];
+    private int[] nodeY = new int[1024];
+    private Cluster[] nodeCluster = new Cluster[1024];
+    private int[] nodeG = new int[1024];
+    private int[] nodeParent = new int[1024];
+    private int[] nodeMark = new int[1024];
+
+    // Search state by cell; a new stamp per search saves clearing the arrays
+    private final int[] gScore;
+    private final int[] parent;
+    private final int[] mark;
+    private int stamp;
+    private final Heap open = new Heap();
+
+    // Breadth-first search inside one cluster, with its own stamp
+    private final int[] localDistance;
+    private final int[] localMark;
+    private final int[] localQueue;
+    private int localStamp;
+
+    // Per-query buffers, grown as needed and kept
+    private int[] startCosts = new int[16];
+    private int[] goalCosts = new int[16];
+    private int[] waypoints = new int[16];
+    private int waypointCount;
+    private int[] steps = new int[64];
+    private int stepCount;
+
+    public PathPlanner(FlatTileGrid grid) {
+        this(grid, DEFAULT_CLUSTER_SIZE);
+    }
+
+    public PathPlanner(FlatTileGrid grid, int clusterSize) {
+        this.grid = grid;
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.clusterSize = clusterSize;
+        this.clustersWide = (width + clusterSize - 1) / clusterSize;
+        this.clustersHigh = (height + clusterSize - 1) / clusterSize;
+        this.clusters = new Cluster[clustersWide * clustersHigh];
+        this.gScore = new int[width * height];
+        this.parent = new int[width * height];
+        this.mark = new int[width * height];
+        this.localDistance = new int[clusterSize * clusterSize];
+        this.localMark = new int[clusterSize * clusterSize];
+        this.localQueue = new int[clusterSize * clusterSize];
+        grid.setTerrainListener(this);
+    }
+
+    /**
+     * Build every cluster now rather than on first use
+     */
+    public void prepare() {
+        for (int cy = 0; cy < clustersHigh; cy++) {
+            for (int cx = 0; cx < clustersWide; cx++) {
+                cluster(cx, cy);
+            }
+        }
+    }
+
+    @Override
+    public void terrainChanged(int x, int y) {
+        int cx = x / clusterSize;
+        int cy = y / clusterSize;
+        drop(cy * clustersWide + cx);
+
+        // A neighbour's entrances depend on the cells along the border it shares with this cluster
+        if (x % clusterSize == 0 && cx > 0) {
+            drop(cy * clustersWide + cx - 1);
+        }
+        if (x % clusterSize == clusterSize - 1 && cx < clustersWide - 1) {
+            drop(cy * clustersWide + cx + 1);
+        }
+        if (y % clusterSize == 0 && cy > 0) {
+            drop((cy - 1) * clustersWide + cx);
+        }
+        if (y % clusterSize == clusterSize - 1 && cy < clustersHigh - 1) {
+            drop((cy + 1) * clustersWide + cx);
+        }
+    }
+
+    private void drop(int i) {
+        if (clusters[i] != null) {
+            droppedNodes += clusters[i].count;
+            clusters[i] = null;
+        }
+    }
+
+    /**
+     * Cells to walk from the start to the goal, as {@link FlatTileGrid#index}
+     * values, excluding the start and ending with the goal; null if the goal
+     * cannot be reached
+     */
+    public int[] findPath(int startX, int startY, int goalX, int goalY) {
+        if (!grid.isWalkable(startX, startY) || !grid.isWalkable(goalX, goalY)) {
+            return null;
+        }
+        if (startX == goalX && startY == goalY) {
+            return new int[0];
+        }
+        if (!planWaypoints(startX, startY, goalX, goalY)) {
+            return null;
+        }
+
+        // Turn each hop into cells
+        stepCount = 0;
+        for (int i = waypointCount - 1; i > 0; i--) {
+            refineHop(waypoints[i], waypoints[i - 1]);
+        }
+        return Arrays.copyOf(steps, stepCount);
+    }
+
+    /**
+     * The first cell to step to on the way from the start to the goal, as
+     * a {@link FlatTileGrid#index} value, or -1 if there is none. Only the
+     * first hops are refined and nothing is allocated, for callers that
+     * take one step a turn.
+     */
+    public int nextStep(int startX, int startY, int goalX, int goalY) {
+        if (!grid.isWalkable(startX, startY) || !grid.isWalkable(goalX, goalY)
+            || (startX == goalX && startY == goalY)
+            || !planWaypoints(startX, startY, goalX, goalY)) {
+            return -1;
+        }
+        // A start on an entrance has an empty first hop
+        stepCount = 0;
+        for (int i = waypointCount - 1; i > 0 && stepCount == 0; i--) {
+            refineHop(waypoints[i], waypoints[i - 1]);
+        }
+        return steps[0];
+    }
+
+    /**
+     * Search the abstract graph, leaving the cells it passes through in
+     * waypoints from the goal back to the start
+     *
+     * @return false if the goal cannot be reached
+     */
+    private boolean planWaypoints(int startX, int startY, int goalX, int goalY) {
+        int start = grid.index(startX, startY);
+        int goal = grid.index(goalX, goalY);
+        if (droppedNodes > nodeCount / 2 && droppedNodes > 4096) {
+            // Mostly stale ids; rebuild the clusters as they are needed again
+            Arrays.fill(clusters, null);
+            nodeCount = 2;
+            droppedNodes = 0;
+        }
+
+        // Connect the start and goal to the entrances of their clusters
+        Cluster startCluster = clusterOf(startX, startY);
+        Cluster goalCluster = clusterOf(goalX, goalY);
+        floodCluster(startCluster, startX, startY);
+        if (startCosts.length < startCluster.count) {
+            startCosts = new int[Math.max(startCluster.count, startCosts.length * 2)];
+        }
+        entranceDistances(startCluster, startCosts, 0);
+        int direct = startCluster == goalCluster ? distanceAt(startCluster.local(goalX, goalY)) : UNREACHED;
+        floodCluster(goalCluster, goalX, goalY);
+        if (goalCosts.length < goalCluster.count) {
+            goalCosts = new int[Math.max(goalCluster.count, goalCosts.length * 2)];
+        }
+        entranceDistances(goalCluster, goalCosts, 0);
+
+        // A* over the entrances
+        newSearch();
+        setNode(START, start);
+        setNode(GOAL, goal);
+        relaxNode(START, 0, START, goalX, goalY);
+        if (direct != UNREACHED) {
+            relaxNode(GOAL, direct, START, goalX, goalY);
+        }
+        boolean found = false;
+        while (!open.isEmpty()) {
+            int node = open.pop();
+            if (nodeMark[node] == closedMark()) {
+                continue;
+            }
+            nodeMark[node] = closedMark();
+            if (node == GOAL) {
+                found = true;
+                break;
+            }
+
+            int g = nodeG[node];
+            if (node == START) {
+                for (int k = 0; k < startCluster.count; k++) {
+                    if (startCosts[k] != UNREACHED) {
+                        relaxNode(startCluster.firstId + k, g + startCosts[k], node, goalX, goalY);
+                    }
+                }
+                continue;
+            }
+            Cluster cluster = nodeCluster[node];
+            int k = node - cluster.firstId;
+            for (int j = 0; j < cluster.count; j++) {
+                int cost = cluster.costs[k * cluster.count + j];
+                if (j != k && cost != UNREACHED) {
+                    relaxNode(cluster.firstId + j, g + cost, node, goalX, goalY);
+                }
+            }
+            for (int p = 2 * k; p < 2 * k + 2; p++) {
+                int partner = cluster.partners[p];
+                if (partner >= 0) {
+                    Cluster other = clusterOf(grid.xOf(partner), grid.yOf(partner));
+                    int j = other.indexOf(partner);
+                    if (j >= 0) {
+                        relaxNode(other.firstId + j, g + 1, node, goalX, goalY);
+                    }
+                }
+            }
+            if (cluster == goalCluster && goalCosts[k] != UNREACHED) {
+                relaxNode(GOAL, g + goalCosts[k], node, goalX, goalY);
+            }
+        }
+        if (!found) {
+            return false;
+        }
+
+        waypointCount = 0;
+        for (int node = GOAL; ; node = nodeParent[node]) {
+            if (waypointCount == waypoints.length) {
+                waypoints = Arrays.copyOf(waypoints, waypointCount * 2);
+            }
+            waypoints[waypointCount++] = nodeCell[node];
+            if (node == START) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Append the cells of one hop between waypoints to steps
+     */
+    private void refineHop(int from, int to) {
+        Cluster cluster = clusterOf(grid.xOf(from), grid.yOf(from));
+        if (cluster != clusterOf(grid.xOf(to), grid.yOf(to))) {
+            addStep(to);   // Across a border between entrances
+        } else {
+            search(from, to, cluster.minX, cluster.minY, cluster.maxX, cluster.maxY);
+            appendPath(from, to);
+        }
+    }
+
+    /**
+     * The same as {@link #findPath} but with a single A* search over the
+     * whole map, for comparison; paths are always the shortest
+     */
+    public int[] findPathDirect(int startX, int startY, int goalX, int goalY) {
+        if (!grid.isWalkable(startX, startY) || !grid.isWalkable(goalX, goalY)) {
+            return null;
+        }
+        int start = grid.index(startX, startY);
+        int goal = grid.index(goalX, goalY);
+        if (!search(start, goal, 0, 0, width, height)) {
+            return null;
+        }
+        stepCount = 0;
+        appendPath(start, goal);
+        return Arrays.copyOf(steps, stepCount);
+    }
+
+    /**
+     * A* between two cells without leaving a rectangle (max exclusive)
+     */
+    private boolean search(int start, int goal, int minX, int minY, int maxX, int maxY) {
+        newSearch();
+        int goalX = grid.xOf(goal);
+        int goalY = grid.yOf(goal);
+        relax(start, 0, start, goalX, goalY);
+        while (!open.isEmpty()) {
+            int cell = open.pop();
+            if (mark[cell] == closedMark()) {
+                continue;
+            }
+            mark[cell] = closedMark();
+            if (cell == goal) {
+                return true;
+            }
+            int x = grid.xOf(cell);
+            int y = grid.yOf(cell);
+            int next = gScore[cell] + 1;
+            for (int d = 0; d < DX.length; d++) {
+                int nx = x + DX[d];
+                int ny = y + DY[d];
+                if (nx >= minX && ny >= minY && nx < maxX && ny < maxY && grid.isWalkable(nx, ny)) {
+                    relax(ny * width + nx, next, cell, goalX, goalY);
+                }
+            }
+        }
+        return false;
+    }
+
+    private void newSearch() {
+        open.clear();
+        stamp++;
+        if (stamp >= Integer.MAX_VALUE / 2) {
+            Arrays.fill(mark, 0);
+            Arrays.fill(nodeMark, 0);
+            stamp = 1;
+        }
+    }
+
+    private int openMark() {
+        return 2 * stamp;
+    }
+
+    private int closedMark() {
+        return 2 * stamp + 1;
+    }
+
+    private void relax(int cell, int g, int from, int goalX, int goalY) {
+        if (mark[cell] == closedMark() || (mark[cell] == openMark() && gScore[cell] <= g)) {
+            return;
+        }
+        mark[cell] = openMark();
+        gScore[cell] = g;
+        parent[cell] = from;
+        // Chebyshev distance never overestimates an 8-way walk; ties go to the cell nearer the goal
+        int h = Math.max(Math.abs(grid.xOf(cell) - goalX), Math.abs(grid.yOf(cell) - goalY));
+        open.push(((long) (g + h) << 32) | h, cell);
+    }
+
+    private void setNode(int node, int cell) {
+        nodeCell[node] = cell;
+        nodeX[node] = grid.xOf(cell);
+        nodeY[node] = grid.yOf(cell);
+    }
+
+    private void relaxNode(int node, int g, int from, int goalX, int goalY) {
+        if (nodeMark[node] == closedMark() || (nodeMark[node] == openMark() && nodeG[node] <= g)) {
+            return;
+        }
+        nodeMark[node] = openMark();
+        nodeG[node] = g;
+        nodeParent[node] = from;
+        int h = Math.max(Math.abs(nodeX[node] - goalX), Math.abs(nodeY[node] - goalY));
+        open.push(((long) (g + h) << 32) | h, node);
+    }
+
+    /**
+     * Append the cells of the last search's path from one cell to another, excluding the first
+     */
+    private void appendPath(int from, int to) {
+        int begin = stepCount;
+        for (int cell = to; cell != from; cell = parent[cell]) {
+            addStep(cell);
+        }
+        // Parents run backwards
+        for (int i = begin, j = stepCount - 1; i < j; i++, j--) {
+            int swap = steps[i];
+            steps[i] = steps[j];
+            steps[j] = swap;
+        }
+    }
+
+    private void addStep(int cell) {
+        if (stepCount == steps.length) {
+            steps = Arrays.copyOf(steps, stepCount * 2);
+        }
+        steps[stepCount++] = cell;
+    }
+
+    private Cluster clusterOf(int x, int y) {
+        return cluster(x / clusterSize, y / clusterSize);
+    }
+
+    private Cluster cluster(int cx, int cy) {
+        int i = cy * clustersWide + cx;
+        if (clusters[i] == null) {
+            clusters[i] = build(cx, cy);
+        }
+        return clusters[i];
+    }
+
+    private Cluster build(int cx, int cy) {
+        int minX = cx * clusterSize;
+        int minY = cy * clusterSize;
+        Cluster cluster = new Cluster(minX, minY, Math.min(minX + clusterSize, width),
+                                      Math.min(minY + clusterSize, height), clusterSize);
+        if (cx > 0) {
+            scanBorder(cluster, cluster.minX, cluster.minX - 1, true);
+        }
+        if (cx < clustersWide - 1) {
+            scanBorder(cluster, cluster.maxX - 1, cluster.maxX, true);
+        }
+        if (cy > 0) {
+            scanBorder(cluster, cluster.minY, cluster.minY - 1, false);
+        }
+        if (cy < clustersHigh - 1) {
+            scanBorder(cluster, cluster.maxY - 1, cluster.maxY, false);
+        }
+
+        int n = cluster.count;
+        cluster.costs = new int[n * n];
+        for (int k = 0; k < n; k++) {
+            int entrance = cluster.entrances[k];
+            floodCluster(cluster, grid.xOf(entrance), grid.yOf(entrance));
+            entranceDistances(cluster, cluster.costs, k * n);
+        }
+
+        cluster.firstId = nodeCount;
+        nodeCount += n;
+        if (nodeCount > nodeCell.length) {
+            int capacity = Math.max(nodeCount, nodeCell.length * 2);
+            nodeCell = Arrays.copyOf(nodeCell, capacity);
+            nodeX = Arrays.copyOf(nodeX, capacity);
+            nodeY = Arrays.copyOf(nodeY, capacity);
+            nodeCluster = Arrays.copyOf(nodeCluster, capacity);
+            nodeG = Arrays.copyOf(nodeG, capacity);
+            nodeParent = Arrays.copyOf(nodeParent, capacity);
+            nodeMark = Arrays.copyOf(nodeMark, capacity);
+        }
+        for (int k = 0; k < n; k++) {
+            setNode(cluster.firstId + k, cluster.entrances[k]);
+            nodeCluster[cluster.firstId + k] = cluster;
+        }
+        return cluster;
+    }
+
+    /**
+     * Place entrances along one border of a cluster: the line own (a column
+     * if vertical, else a row) inside it, facing the line other outside it.
+     * Both clusters on a border scan it the same way, so their entrances pair up.
+     */
+    private void scanBorder(Cluster cluster, int own, int other, boolean vertical) {
+        int from = vertical ? cluster.minY : cluster.minX;
+        int to = vertical ? cluster.maxY : cluster.maxX;
+        int runStart = -1;
+        for (int t = from; t <= to; t++) {
+            boolean passable = t < to && (vertical
+                ? grid.isWalkable(own, t) && grid.isWalkable(other, t)
+                : grid.isWalkable(t, own) && grid.isWalkable(t, other));
+            if (passable && runStart < 0) {
+                runStart = t;
+            } else if (!passable && runStart >= 0) {
+                int length = t - runStart;
+                if (length < LONG_ENTRANCE) {
+                    addEntrance(cluster, runStart + length / 2, own, other, vertical);
+                } else {
+                    addEntrance(cluster, runStart, own, other, vertical);
+                    addEntrance(cluster, t - 1, own, other, vertical);
+                }
+                runStart = -1;
+            }
+        }
+    }
+
+    private void addEntrance(Cluster cluster, int t, int own, int other, boolean vertical) {
+        int cell = vertical ? grid.index(own, t) : grid.index(t, own);
+        int partner = vertical ? grid.index(other, t) : grid.index(t, other);
+        cluster.addEntrance(cell, partner);
+    }
+
+    /**
+     * Breadth-first walking distances from a cell to the rest of its
+     * cluster, into localDistance. Cells not stamped by this flood are
+     * unreached, so nothing is cleared first.
+     */
+    private void floodCluster(Cluster cluster, int x, int y) {
+        if (++localStamp == Integer.MAX_VALUE) {
+            Arrays.fill(localMark, 0);
+            localStamp = 1;
+        }
+        int head = 0;
+        int tail = 0;
+        int first = cluster.local(x, y);
+        localDistance[first] = 0;
+        localMark[first] = localStamp;
+        localQueue[tail++] = first;
+        while (head < tail) {
+            int local = localQueue[head++];
+            int cx = cluster.minX + local % clusterSize;
+            int cy = cluster.minY + local / clusterSize;
+            int next = localDistance[local] + 1;
+            for (int d = 0; d < DX.length; d++) {
+                int nx = cx + DX[d];
+                int ny = cy + DY[d];
+                if (nx < cluster.minX || ny < cluster.minY || nx >= cluster.maxX || ny >= cluster.maxY) {
+                    continue;
+                }
+                int neighbour = cluster.local(nx, ny);
+                if (localMark[neighbour] != localStamp && grid.isWalkable(nx, ny)) {
+                    localMark[neighbour] = localStamp;
+                    localDistance[neighbour] = next;
+                    localQueue[tail++] = neighbour;
+                }
+            }
+        }
+    }
+
+    /**
+     * Distance from the last flood to a cell of its cluster
+     */
+    private int distanceAt(int local) {
+        return localMark[local] == localStamp ? localDistance[local] : UNREACHED;
+    }
+
+    /**
+     * Distances from the last flood to each of a cluster's entrances, written to out from offset
+     */
+    private void entranceDistances(Cluster cluster, int[] out, int offset) {
+        for (int k = 0; k < cluster.count; k++) {
+            int entrance = cluster.entrances[k];
+            out[offset + k] = distanceAt(cluster.local(grid.xOf(entrance), grid.yOf(entrance)));
+        }
+    }
+
+    /**
+     * One cluster's entrances, the cell each one faces across the border
+     * (two for a corner cell), and the walking distance between every pair
+     */
+    private static class Cluster {
+        final int minX, minY, maxX, maxY;   // Max exclusive
+        final int size;
+        int[] entrances = new int[8];
+        int[] partners = new int[16];       // Two per entrance, -1 if unused
+        int count;
+        int[] costs;                        // count x count, UNREACHED if not connected inside the cluster
+        int firstId;                        // Node id of the first entrance; the rest follow
+
+        Cluster(int minX, int minY, int maxX, int maxY, int size) {
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.size = size;
+        }
+
+        int local(int x, int y) {
+            return (y - minY) * size + (x - minX);
+        }
+
+        int indexOf(int cell) {
+            for (int k = 0; k < count; k++) {
+                if (entrances[k] == cell) {
+                    return k;
+                }
+            }
+            return -1;
+        }
+
+        void addEntrance(int cell, int partner) {
+            int k = indexOf(cell);
+            if (k >= 0) {
+                partners[2 * k + 1] = partner;
+                return;
+            }
+            if (count == entrances.length) {
+                entrances = Arrays.copyOf(entrances, count * 2);
+                partners = Arrays.copyOf(partners, count * 4);
+            }
+            entrances[count] = cell;
+            partners[2 * count] = partner;
+            partners[2 * count + 1] = -1;
+            count++;
+        }
+    }
+
+    /**
+     * Binary min-heap of cells by a long key
+     */
+    private static class Heap {
+        private long[] keys = new long[256];
+        private int[] values = new int[256];
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        void push(long key, int value) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int up = (i - 1) >> 1;
+                if (keys[up] <= key) {
+                    break;
+                }
+                keys[i] = keys[up];
+                values[i] = values[up];
+                i = up;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        int pop() {
+            int top = values[0];
+            long key = keys[--size];
+            int value = values[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (keys[child] >= key) {
+                    break;
+                }
+                keys[i] = keys[child];
+                values[i] = values[child];
+                i = child;
+            }
+            keys[i] = key;
+            values[i] = value;
+            return top;
+        }
+    }
+
+    public static void main(String[] args) {
+        int width = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int height = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int queries = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+
+        long started = System.nanoTime();
+        FlatTileGrid grid = new LevelGenerator(seed, width, height).generate(1).getGrid();
+        System.out.println("🔄 Generated a " + width + "x" + height + " level in "
+                           + (System.nanoTime() - started) / 1_000_000 + " ms");
+
+        PathPlanner planner = new PathPlanner(grid, args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_CLUSTER_SIZE);
+        started = System.nanoTime();
+        planner.prepare();
+        System.out.println("✅ Built " + planner.clusters.length + " clusters in "
+                           + (System.nanoTime() - started) / 1_000_000 + " ms");
+
+        SplittableRandom random = new SplittableRandom(seed);
+        benchmark(planner, grid, random, queries, 100, "Within 100 cells");
+        benchmark(planner, grid, random, queries, Math.max(width, height), "Anywhere on the level");
+    }
+
+    private static void benchmark(PathPlanner planner, FlatTileGrid grid, SplittableRandom random,
+                                  int queries, int range, String label) {
+        // Random pairs of floor cells no further apart than the range
+        FreeCellIndex floor = grid.freeCells();
+        int[] pairs = new int[queries * 4];
+        for (int i = 0; i < queries; i++) {
+            int start = floor.random(random);
+            int goal;
+            do {
+                goal = floor.random(random);
+            } while (Math.max(Math.abs(grid.xOf(goal) - grid.xOf(start)),
+                              Math.abs(grid.yOf(goal) - grid.yOf(start))) > range);
+            pairs[4 * i] = grid.xOf(start);
+            pairs[4 * i + 1] = grid.yOf(start);
+            pairs[4 * i + 2] = grid.xOf(goal);
+            pairs[4 * i + 3] = grid.yOf(goal);
+        }
+
+        // The first pass warms up both searches, the second is timed
+        long hierarchical = 0;
+        long direct = 0;
+        long hierarchicalSteps = 0;
+        long directSteps = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            hierarchical = 0;
+            direct = 0;
+            hierarchicalSteps = 0;
+            directSteps = 0;
+            for (int i = 0; i < pairs.length; i += 4) {
+                long t0 = System.nanoTime();
+                int[] path = planner.findPath(pairs[i], pairs[i + 1], pairs[i + 2], pairs[i + 3]);
+                long t1 = System.nanoTime();
+                int[] shortest = planner.findPathDirect(pairs[i], pairs[i + 1], pairs[i + 2], pairs[i + 3]);
+                long t2 = System.nanoTime();
+                hierarchical += t1 - t0;
+                direct += t2 - t1;
+                if (path != null && shortest != null) {
+                    hierarchicalSteps += path.length;
+                    directSteps += shortest.length;
+                }
+            }
+        }
+        System.out.printf("🔍 %s: HPA* %.3f ms per path, A* %.3f ms per path, HPA* paths %.1f%% longer%n",
+                          label, hierarchical / 1e6 / queries, direct / 1e6 / queries,
+                          directSteps == 0 ? 0.0 : 100.0 * (hierarchicalSteps - directSteps) / directSteps);
+    }
+}
@@ -4,9 +4,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 
-public class Player {
+public class Player implements Actor {
     private int x, y;
     private int hp;
     private int maxHp;
@@ -22,10 +21,11 @@ public class Player {
     private int armor;
     private int exp;
     private int expToNextLevel;
-    private char[][] map;
+    private TileGrid map;
     private String statusMessage;
-    private Random rand = new Random();
     private int currentLevel;
+    private int speed = NORMAL_SPEED;
+    private final StatusEffects effects = new StatusEffects();
     
     // Inventory fields
     private List<Item> inventory;
@@ -38,10 +38,13 @@ public class Player {
 
     private Dungeon dungeon;
 
-    public Player(int[] startPosition, char[][] map, Dungeon dungeon) {
+    public Player(int[] startPosition, TileGrid map, Dungeon dungeon) {
         this.x = startPosition[0];
         this.y = startPosition[1];
         this.map = map;
+        if (map != null && map.inBounds(x, y)) {
+            map.setPlayer(x, y, true);
+        }
         this.baseMaxHp = 1000;
         this.maxHp = baseMaxHp;
         this.hp = maxHp;        
@@ -81,17 +84,43 @@ public class Player {
     public int getExp() { return exp; }
     public int getExpToNextLevel() { return expToNextLevel; }
     public String getStatusMessage() { return statusMessage; }
+    @Override
+    public int getSpeed() { return speed; }
+    public StatusEffects getStatusEffects() { return effects; }
+    public boolean isStunned() { return effects.has(StatusEffect.STUNNED); }
 
     // Setters
     public void setStatusMessage(String message) { 
         this.statusMessage = message;
     }
     public void setPosition(int x, int y) {
-        this.x = x;
-        this.y = y;
+        occupy(x, y);
+    }
+    public void setSpeed(int speed) {
+        this.speed = speed;
     }
-    public void setMap(char[][] map) {
+    public void setMap(TileGrid map) {
+        if (this.map != null && this.map.inBounds(x, y)) {
+            this.map.setPlayer(x, y, false);
+        }
         this.map = map;
+        if (map != null && map.inBounds(x, y)) {
+            map.setPlayer(x, y, true);
+        }
+    }
+    
+    /**
+     * Move to a cell, keeping the map's occupancy layer in sync
+     */
+    private void occupy(int newX, int newY) {
+        if (map != null && map.inBounds(x, y)) {
+            map.setPlayer(x, y, false);
+        }
+        x = newX;
+        y = newY;
+        if (map != null && map.inBounds(x, y)) {
+            map.setPlayer(x, y, true);
+        }
     }
     
     // Inventory getters
@@ -108,6 +137,10 @@ public class Player {
             statusMessage = "You are dead! Cannot move.";
             return;
         }
+        if (isStunned()) {
+            statusMessage = "You are stunned and cannot move!";
+            return;
+        }
 
         int newX = x;
         int newY = y;
@@ -121,36 +154,31 @@ public class Player {
         }
 
         // Check bounds
-        if (newX < 0 || newY < 0 || newY >= map.length || newX >= map[0].length) {
+        if (!map.inBounds(newX, newY)) {
             statusMessage = "You cannot move outside the dungeon!";
             return;
         }
 
-        char tile = map[newY][newX];
-
-        // Clear the player's old position
-        if (map[y][x] == 'P') {
-            map[y][x] = '.'; 
-        }
+        int terrain = map.terrain(newX, newY);
 
         // Move if not a wall
-        if (tile != '#') { 
-            x = newX;
-            y = newY;
+        if (map.isWalkable(newX, newY)) { 
+            occupy(newX, newY);
             decreaseHunger();
             
             // Handle special tiles
-            if (tile == '!') {
+            int item = map.item(newX, newY);
+            if (item == TileGrid.ITEM) {
                 // Found an item
                 Item foundItem = ItemFactory.createRandomItem(level);
                 if (addItemToInventory(foundItem)) {
-                    map[newY][newX] = '.'; // Remove item from map
+                    map.setItem(newX, newY, TileGrid.NO_ITEM); // Remove item from map
                 }
-            } else if (tile == '$') {
+            } else if (item == TileGrid.GOLD) {
                 // Found gold
-                int goldAmount = 5 + rand.nextInt(level * 5);
+                int goldAmount = 5 + GameRandom.get(GameRandom.Stream.LOOT).nextInt(level * 5);
                 addGold(goldAmount);
-                map[newY][newX] = '.'; // Remove gold from map
+                map.setItem(newX, newY, TileGrid.NO_ITEM); // Remove gold from map
             }
         } else {
             statusMessage = "You bump into a wall.";
@@ -158,9 +186,9 @@ public class Player {
         }
 
         // Handle stairs
-        if (tile == '>') {
+        if (terrain == TileGrid.STAIRS_DOWN) {
             statusMessage = "Going down to the next floor!";
-        } else if (tile == '<') {
+        } else if (terrain == TileGrid.STAIRS_UP) {
             if (level > 1) {
                 statusMessage = "Going up to the previous floor!";
             } else {
@@ -196,6 +224,33 @@ public class Player {
         }
     }
 
+    /**
+     * Suffer or shake off a status effect
+     */
+    public void applyStatus(StatusEffect effect, int duration) {
+        effects.apply(effect, duration);
+        statusMessage = "You are " + effect.getLabel() + "!";
+    }
+
+    /**
+     * Pass one turn of status effects: damage over time, then recovery
+     */
+    public void updateStatus() {
+        if (effects.isEmpty()) {
+            return;
+        }
+        // Name the effects that did the damage, even if they ran out doing it
+        String causes = effects.describe();
+        int damage = effects.tick(1, armor / 2);
+        if (damage > 0) {
+            hp = Math.max(0, hp - damage);
+            statusMessage = hp == 0 ? "You have died!" : "You took " + damage + " damage from " + causes + "!";
+        }
+        if (hp > 0 && effects.anyExpired()) {
+            statusMessage = "You feel better.";
+        }
+    }
+
     /**
      * Attack a monster
      */
@@ -206,7 +261,10 @@ public class Player {
         }
         
         // Calculate damage based on strength
-        int damage = strength + rand.nextInt(3);
+        int damage = strength + GameRandom.get(GameRandom.Stream.COMBAT).nextInt(3);
+        if (effects.has(StatusEffect.WEAKENED)) {
+            damage = Math.max(1, damage / 2);
+        }
         
         monster.takeDamage(damage);
         statusMessage = "You attack " + monster.getName() + " for " + damage + " damage!";
@@ -221,7 +279,7 @@ public class Player {
             statusMessage = "You defeated " + monster.getName() + "! Gained " + goldGained + " gold." + expGained + " experience.";
             
             // Chance to drop an item when monster is defeated
-            if (rand.nextDouble() < 0.35) {
+            if (GameRandom.get(GameRandom.Stream.LOOT).nextDouble() < 0.35) {
                 Item droppedItem = ItemFactory.createRandomItem(level);
                 addItemToInventory(droppedItem);
                 statusMessage += " You found " + droppedItem.getName() + "!";
@@ -478,22 +536,17 @@ public class Player {
     
         Dungeon newDungeon = new Dungeon(levelFile); 
     
-        if (newDungeon.getMap() == null || newDungeon.getMap().length == 0) {
+        if (newDungeon.getGrid() == null) {
             System.out.println("❌ Error: Failed to load new dungeon!");
             statusMessage = "Dungeon load failed!";
             return;
         }
     
         this.level = newDungeon.getLevelNumber();
-        this.map = newDungeon.getMap();
-    
-        if (map[y][x] == '@') {
-            map[y][x] = '.';
-        }
+        setMap(newDungeon.getGrid());
     
         int[] startPos = newDungeon.getPlayerStartPosition();
-        this.x = startPos[0];
-        this.y = startPos[1];
+        occupy(startPos[0], startPos[1]);
     
         System.out.println("✅ Successfully loaded new dungeon: " + levelFile);
         statusMessage = "You have entered Level " + level + "!";
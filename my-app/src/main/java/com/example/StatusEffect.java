@@ -0,0 +1,47 @@
+package com.example;
+
+/**
+ * Status effects a monster or the player can be under, any number at once.
+ * Each effect has its own bit, so a set of them fits in an int.
+ */
+public enum StatusEffect {
+    POISONED("poisoned", 1, true),
+    BURNING("burning", 2, true),
+    STUNNED("stunned", 0, false),
+    WEAKENED("weakened", 0, false),
+    RESISTANT("status resistant", 0, false);   // Effects applied later last half as long
+
+    private static final StatusEffect[] VALUES = values();
+
+    private final String label;
+    private final int tickDamage;   // Damage per turn for every stack
+    private final boolean stacks;   // Whether applying it again adds a stack
+    private final int bit = 1 << ordinal();
+
+    StatusEffect(String label, int tickDamage, boolean stacks) {
+        this.label = label;
+        this.tickDamage = tickDamage;
+        this.stacks = stacks;
+    }
+
+    public String getLabel() { return label; }
+    public int getTickDamage() { return tickDamage; }
+    public boolean stacks() { return stacks; }
+    int bit() { return bit; }
+
+    static StatusEffect of(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * The effect with a label such as "poisoned"
+     */
+    public static StatusEffect fromLabel(String label) {
+        for (StatusEffect effect : VALUES) {
+            if (effect.label.equals(label)) {
+                return effect;
+            }
+        }
+        throw new IllegalArgumentException("Unknown status effect: " + label);
+    }
+}
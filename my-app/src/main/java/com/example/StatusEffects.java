@@ -0,0 +1,173 @@
+package com.example;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The status effects on one monster or the player: a bitmask of the active
+ * effects with the turns each has left and, for poison and burning, how
+ * many times it has stacked. Checking for an effect is a single bit test
+ * and passing turns only visits the effects that are set.
+ */
+public class StatusEffects {
+    public static final int PERMANENT = Integer.MAX_VALUE;
+    public static final int MAX_STACKS = 5;
+    private static final int COUNT = StatusEffect.values().length;
+
+    private int mask;
+    private final int[] remaining = new int[COUNT];
+    private final int[] stacks = new int[COUNT];
+    private int expired;   // Effects that ran out during the last tick
+
+    public boolean has(StatusEffect effect) {
+        return (mask & effect.bit()) != 0;
+    }
+
+    public boolean isEmpty() {
+        return mask == 0;
+    }
+
+    public int remaining(StatusEffect effect) {
+        return has(effect) ? remaining[effect.ordinal()] : 0;
+    }
+
+    public int stacks(StatusEffect effect) {
+        return has(effect) ? stacks[effect.ordinal()] : 0;
+    }
+
+    /**
+     * Start an effect, or make a running one last at least this long and
+     * add a stack if it stacks
+     */
+    public void apply(StatusEffect effect, int duration) {
+        if (duration <= 0) {
+            return;
+        }
+        if (effect != StatusEffect.RESISTANT && duration != PERMANENT && has(StatusEffect.RESISTANT)) {
+            duration = Math.max(1, duration / 2);
+        }
+        int i = effect.ordinal();
+        if (has(effect)) {
+            remaining[i] = Math.max(remaining[i], duration);
+            if (effect.stacks()) {
+                stacks[i] = Math.min(MAX_STACKS, stacks[i] + 1);
+            }
+        } else {
+            mask |= effect.bit();
+            remaining[i] = duration;
+            stacks[i] = 1;
+        }
+    }
+
+    public void clear(StatusEffect effect) {
+        mask &= ~effect.bit();
+    }
+
+    /**
+     * Let some turns pass. Every effect loses that many turns, and the
+     * damaging ones hurt once per turn they were still running, less the
+     * given armor but at least 1 a turn.
+     *
+     * @return the damage dealt over all the turns
+     */
+    public int tick(int turns, int armor) {
+        expired = 0;
+        if (mask == 0 || turns <= 0) {
+            return 0;
+        }
+        int damage = 0;
+        for (int bits = mask; bits != 0; bits &= bits - 1) {
+            int i = Integer.numberOfTrailingZeros(bits);
+            if (remaining[i] == PERMANENT) {
+                continue;
+            }
+            StatusEffect effect = StatusEffect.of(i);
+            int ticks = Math.min(turns, remaining[i]);
+            if (effect.getTickDamage() > 0) {
+                damage += ticks * Math.max(1, effect.getTickDamage() * stacks[i] - armor);
+            }
+            remaining[i] -= ticks;
+            if (remaining[i] == 0) {
+                mask &= ~effect.bit();
+                expired |= effect.bit();
+            }
+        }
+        return damage;
+    }
+
+    /**
+     * Whether an effect ran out during the last tick
+     */
+    public boolean expired(StatusEffect effect) {
+        return (expired & effect.bit()) != 0;
+    }
+
+    public boolean anyExpired() {
+        return expired != 0;
+    }
+
+    /**
+     * Turns until the first effect runs out, or -1 if none will
+     */
+    public int turnsUntilExpiry() {
+        int soonest = PERMANENT;
+        for (int bits = mask; bits != 0; bits &= bits - 1) {
+            soonest = Math.min(soonest, remaining[Integer.numberOfTrailingZeros(bits)]);
+        }
+        return soonest == PERMANENT ? -1 : soonest;
+    }
+
+    /**
+     * Turns until the last effect that can run out does so, or 0
+     */
+    public int longestRemaining() {
+        int longest = 0;
+        for (int bits = mask; bits != 0; bits &= bits - 1) {
+            int turns = remaining[Integer.numberOfTrailingZeros(bits)];
+            if (turns != PERMANENT) {
+                longest = Math.max(longest, turns);
+            }
+        }
+        return longest;
+    }
+
+    /**
+     * The active effects for display, such as "poisoned, stunned", or "normal"
+     */
+    public String describe() {
+        if (mask == 0) {
+            return "normal";
+        }
+        StringBuilder text = new StringBuilder();
+        for (int bits = mask; bits != 0; bits &= bits - 1) {
+            int i = Integer.numberOfTrailingZeros(bits);
+            if (text.length() > 0) {
+                text.append(", ");
+            }
+            text.append(StatusEffect.of(i).getLabel());
+            if (stacks[i] > 1) {
+                text.append(" x").append(stacks[i]);
+            }
+        }
+        return text.toString();
+    }
+
+    void write(DataOutput out) throws IOException {
+        out.writeInt(mask);
+        for (int bits = mask; bits != 0; bits &= bits - 1) {
+            int i = Integer.numberOfTrailingZeros(bits);
+            out.writeInt(remaining[i]);
+            out.writeByte(stacks[i]);
+        }
+    }
+
+    void read(DataInput in) throws IOException {
+        mask = in.readInt();
+        for (int bits = mask; bits != 0; bits &= bits - 1) {
+            int i = Integer.numberOfTrailingZeros(bits);
+            remaining[i] = in.readInt();
+            stacks[i] = in.readUnsignedByte();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example;
+
+import javax.swing.JComponent;
+import javax.swing.JTextPane;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.DefaultStyledDocument;
+import javax.swing.text.Style;
+import javax.swing.text.StyleConstants;
+import javax.swing.text.StyleContext;
+import java.awt.Color;
+import java.awt.Font;
+
+/**
+ * Draws the map into a styled document, only touching the cells that
+ * changed since the previous frame.
+ */
+public class TextMapRenderer implements MapView {
+    private final JTextPane textPane;
+    private final StyleContext styleContext;
+    private final DefaultStyledDocument document;
+    private final Style[] paletteStyles;
+    private final Style statusStyle;
+
+    private char[][] lastFrame;   // Copy of the last frame that was drawn
+    private int frameWidth;
+    private int frameHeight;
+    private String lastStatus = "";
+    private final StringBuilder run = new StringBuilder();
+
+    public TextMapRenderer() {
+        styleContext = new StyleContext();
+        document = new DefaultStyledDocument(styleContext);
+
+        // Build every style once instead of once per cell
+        paletteStyles = new Style[TilePalette.size()];
+        for (int slot = 0; slot < paletteStyles.length; slot++) {
+            Style style = styleContext.addStyle("Tile" + slot, null);
+            StyleConstants.setForeground(style, TilePalette.colorOf(slot));
+            paletteStyles[slot] = style;
+        }
+        statusStyle = styleContext.addStyle("StatusStyle", null);
+        StyleConstants.setForeground(statusStyle, Color.WHITE);
+
+        textPane = new JTextPane();
+        textPane.setFont(new Font("Monospaced", Font.PLAIN, 14));
+        textPane.setEditable(false);
+        textPane.setBackground(Color.BLACK);
+        textPane.setDocument(document);
+    }
+
+    @Override
+    public JComponent getComponent() {
+        return textPane;
+    }
+
+    public DefaultStyledDocument getDocument() {
+        return document;
+    }
+
+    /**
+     * Draw a frame followed by the status text. The frame is copied, so the
+     * caller may reuse it.
+     */
+    @Override
+    public void render(char[][] frame, String statusText) {
+        try {
+            int height = frame.length;
+            int width = height == 0 ? 0 : frame[0].length;
+
+            if (lastFrame == null || width != frameWidth || height != frameHeight) {
+                rebuild(frame, width, height, statusText);
+                return;
+            }
+
+            for (int y = 0; y < height; y++) {
+                updateRow(y, frame[y]);
+            }
+
+            if (!statusText.equals(lastStatus)) {
+                int statusStart = mapLength();
+                document.replace(statusStart, document.getLength() - statusStart, statusText, statusStyle);
+                lastStatus = statusText;
+            }
+        } catch (BadLocationException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Forget the previous frame so the next render redraws everything
+     */
+    public void invalidate() {
+        lastFrame = null;
+    }
+
+    private void rebuild(char[][] frame, int width, int height, String statusText) throws BadLocationException {
+        document.remove(0, document.getLength());
+
+        lastFrame = new char[height][width];
+        frameWidth = width;
+        frameHeight = height;
+
+        for (int y = 0; y < height; y++) {
+            char[] row = frame[y];
+            System.arraycopy(row, 0, lastFrame[y], 0, width);
+
+            int x = 0;
+            while (x < width) {
+                int slot = TilePalette.slotFor(row[x]);
+                int end = x + 1;
+                while (end < width && TilePalette.slotFor(row[end]) == slot) {
+                    end++;
+                }
+                document.insertString(document.getLength(), new String(row, x, end - x), paletteStyles[slot]);
+                x = end;
+            }
+            document.insertString(document.getLength(), "\n", null);
+        }
+
+        document.insertString(document.getLength(), statusText, statusStyle);
+        lastStatus = statusText;
+    }
+
+    private void updateRow(int y, char[] row) throws BadLocationException {
+        char[] previous = lastFrame[y];
+        int rowOffset = y * (frameWidth + 1);
+
+        int x = 0;
+        while (x < frameWidth) {
+            if (row[x] == previous[x]) {
+                x++;
+                continue;
+            }
+
+            // Extend the run over changed cells that share a style
+            int slot = TilePalette.slotFor(row[x]);
+            int start = x;
+            run.setLength(0);
+            while (x < frameWidth && row[x] != previous[x] && TilePalette.slotFor(row[x]) == slot) {
+                run.append(row[x]);
+                previous[x] = row[x];
+                x++;
+            }
+            document.replace(rowOffset + start, x - start, run.toString(), paletteStyles[slot]);
+        }
+    }
+
+    private int mapLength() {
+        return frameHeight * (frameWidth + 1);
+    }
+}
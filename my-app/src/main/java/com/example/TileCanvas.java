@@ -0,0 +1,184 @@
+package com.example;
+
+import javax.swing.JComponent;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Map component that blits pre-rendered glyphs from an atlas into a back
+ * buffer and only repaints the cells that changed.
+ */
+public class TileCanvas extends JComponent {
+    private static final String PRELOADED_GLYPHS = " #.><@!$ZBHCEALDKGΩX";
+
+    private final Font font;
+    private final int cellWidth;
+    private final int cellHeight;
+    private final int ascent;
+
+    // Glyph atlas: one cell-sized column per glyph
+    private BufferedImage atlas;
+    private int atlasSize;
+    private final int[] asciiSlots = new int[128];
+    private final Map<Character, Integer> extraSlots = new HashMap<>();
+
+    // Back buffer holding the last drawn frame
+    private BufferedImage backBuffer;
+    private char[][] lastFrame;
+    private int frameWidth;
+    private int frameHeight;
+
+    public TileCanvas() {
+        font = new Font("Monospaced", Font.PLAIN, 14);
+
+        BufferedImage probe = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = probe.createGraphics();
+        FontMetrics metrics = g.getFontMetrics(font);
+        cellWidth = Math.max(1, metrics.charWidth('W'));
+        cellHeight = Math.max(1, metrics.getHeight());
+        ascent = metrics.getAscent();
+        g.dispose();
+
+        Arrays.fill(asciiSlots, -1);
+        atlas = new BufferedImage(cellWidth * PRELOADED_GLYPHS.length(), cellHeight, BufferedImage.TYPE_INT_RGB);
+        for (int i = 0; i < PRELOADED_GLYPHS.length(); i++) {
+            glyphSlot(PRELOADED_GLYPHS.charAt(i));
+        }
+
+        setOpaque(true);
+        setBackground(Color.BLACK);
+    }
+
+    public int getCellWidth() { return cellWidth; }
+    public int getCellHeight() { return cellHeight; }
+
+    /**
+     * Draw a frame into the back buffer and request a repaint of the damaged area
+     */
+    public void render(char[][] frame) {
+        int height = frame.length;
+        int width = height == 0 ? 0 : frame[0].length;
+
+        if (backBuffer == null || width != frameWidth || height != frameHeight) {
+            frameWidth = width;
+            frameHeight = height;
+            lastFrame = new char[height][width];
+            backBuffer = new BufferedImage(Math.max(1, width * cellWidth), Math.max(1, height * cellHeight),
+                                           BufferedImage.TYPE_INT_RGB);
+
+            Graphics g = backBuffer.getGraphics();
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    lastFrame[y][x] = frame[y][x];
+                    blit(g, frame[y][x], x, y);
+                }
+            }
+            g.dispose();
+
+            revalidate();
+            repaint();
+            return;
+        }
+
+        Graphics g = backBuffer.getGraphics();
+        for (int y = 0; y < height; y++) {
+            char[] row = frame[y];
+            char[] previous = lastFrame[y];
+            int dirtyStart = -1;
+            int dirtyEnd = -1;
+
+            for (int x = 0; x < width; x++) {
+                if (row[x] != previous[x]) {
+                    previous[x] = row[x];
+                    blit(g, row[x], x, y);
+                    if (dirtyStart < 0) {
+                        dirtyStart = x;
+                    }
+                    dirtyEnd = x;
+                }
+            }
+
+            // One damage rectangle per row; the repaint manager merges them
+            if (dirtyStart >= 0) {
+                repaint(dirtyStart * cellWidth, y * cellHeight, (dirtyEnd - dirtyStart + 1) * cellWidth, cellHeight);
+            }
+        }
+        g.dispose();
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(frameWidth * cellWidth, frameHeight * cellHeight);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        g.setColor(getBackground());
+        if (clip != null) {
+            g.fillRect(clip.x, clip.y, clip.width, clip.height);
+        } else {
+            g.fillRect(0, 0, getWidth(), getHeight());
+        }
+
+        if (backBuffer != null) {
+            g.drawImage(backBuffer, 0, 0, null);
+        }
+    }
+
+    private void blit(Graphics g, char tile, int x, int y) {
+        int sx = glyphSlot(tile) * cellWidth;
+        int dx = x * cellWidth;
+        int dy = y * cellHeight;
+        g.drawImage(atlas, dx, dy, dx + cellWidth, dy + cellHeight,
+                    sx, 0, sx + cellWidth, cellHeight, null);
+    }
+
+    /**
+     * Atlas column for a glyph, rendering it into the atlas the first time it is seen
+     */
+    private int glyphSlot(char tile) {
+        if (tile < asciiSlots.length && asciiSlots[tile] >= 0) {
+            return asciiSlots[tile];
+        }
+        Integer known = extraSlots.get(tile);
+        if (known != null) {
+            return known;
+        }
+
+        int slot = atlasSize++;
+        if (slot * cellWidth + cellWidth > atlas.getWidth()) {
+            BufferedImage grown = new BufferedImage(atlas.getWidth() * 2, cellHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics g = grown.getGraphics();
+            g.drawImage(atlas, 0, 0, null);
+            g.dispose();
+            atlas = grown;
+        }
+
+        Graphics2D g = atlas.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setColor(Color.BLACK);
+        g.fillRect(slot * cellWidth, 0, cellWidth, cellHeight);
+        g.setFont(font);
+        g.setColor(TilePalette.colorFor(tile));
+        g.drawString(String.valueOf(tile), slot * cellWidth, ascent);
+        g.dispose();
+
+        if (tile < asciiSlots.length) {
+            asciiSlots[tile] = slot;
+        } else {
+            extraSlots.put(tile, slot);
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,207 @@
+package com.example;
+
+/**
+ * Packed dungeon map: one byte per cell.
+ *
+ * Each cell holds three layers:
+ * bits 0-2 terrain, bits 3-4 item lying on the floor, bits 5-6 occupancy flags.
+ * Subclasses decide where the cells live: {@link FlatTileGrid} keeps a level
+ * in one row-major array, {@link ChunkedTileGrid} pages a world in chunks.
+ */
+public abstract class TileGrid {
+    // Terrain layer
+    public static final int VOID = 0;
+    public static final int WALL = 1;
+    public static final int FLOOR = 2;
+    public static final int STAIRS_DOWN = 3;
+    public static final int STAIRS_UP = 4;
+
+    // Item layer
+    public static final int NO_ITEM = 0;
+    public static final int ITEM = 1;
+    public static final int GOLD = 2;
+
+    // Occupancy layer
+    public static final int PLAYER = 1 << 5;
+    public static final int MONSTER = 1 << 6;
+
+    static final int TERRAIN_MASK = 0x07;
+    static final int ITEM_SHIFT = 3;
+    static final int ITEM_MASK = 0x03 << ITEM_SHIFT;
+    static final int OCCUPANCY_MASK = PLAYER | MONSTER;
+
+    private static final char[] TERRAIN_GLYPHS = {' ', '#', '.', '>', '<', ' ', ' ', ' '};
+    static final char[] GLYPHS = new char[32];   // Glyph for every terrain + item combination
+
+    static {
+        for (int cell = 0; cell < GLYPHS.length; cell++) {
+            switch ((cell & ITEM_MASK) >> ITEM_SHIFT) {
+                case ITEM: GLYPHS[cell] = '!'; break;
+                case GOLD: GLYPHS[cell] = '$'; break;
+                default: GLYPHS[cell] = TERRAIN_GLYPHS[cell & TERRAIN_MASK]; break;
+            }
+        }
+    }
+
+    private final int width;
+    private final int height;
+    private int terrainRevision;       // Bumped by every terrain change, so derived data can tell it is stale
+    private TerrainListener terrainListener;
+
+    /**
+     * Told where the terrain changes, for data derived from the map
+     */
+    public interface TerrainListener {
+        void terrainChanged(int x, int y);
+    }
+
+    protected TileGrid(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+
+    public boolean inBounds(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    /**
+     * Packed cell at a position inside the grid
+     */
+    protected abstract int cellAt(int x, int y);
+
+    protected abstract void putCell(int x, int y, int cell);
+
+    static boolean isOpenCell(int cell) {
+        return (cell & TERRAIN_MASK) == FLOOR && (cell & (ITEM_MASK | OCCUPANCY_MASK)) == 0;
+    }
+
+    public int terrain(int x, int y) {
+        return cellAt(x, y) & TERRAIN_MASK;
+    }
+
+    public void setTerrain(int x, int y, int terrain) {
+        putCell(x, y, (cellAt(x, y) & ~TERRAIN_MASK) | terrain);
+        terrainRevision++;
+        if (terrainListener != null) {
+            terrainListener.terrainChanged(x, y);
+        }
+    }
+
+    public int terrainRevision() {
+        return terrainRevision;
+    }
+
+    public void setTerrainListener(TerrainListener listener) {
+        this.terrainListener = listener;
+    }
+
+    public int item(int x, int y) {
+        return (cellAt(x, y) & ITEM_MASK) >> ITEM_SHIFT;
+    }
+
+    public void setItem(int x, int y, int item) {
+        putCell(x, y, (cellAt(x, y) & ~ITEM_MASK) | (item << ITEM_SHIFT));
+    }
+
+    public boolean hasMonster(int x, int y) {
+        return (cellAt(x, y) & MONSTER) != 0;
+    }
+
+    public void setMonster(int x, int y, boolean present) {
+        setFlag(x, y, MONSTER, present);
+    }
+
+    public boolean hasPlayer(int x, int y) {
+        return (cellAt(x, y) & PLAYER) != 0;
+    }
+
+    public void setPlayer(int x, int y, boolean present) {
+        setFlag(x, y, PLAYER, present);
+    }
+
+    private void setFlag(int x, int y, int flag, boolean present) {
+        int cell = cellAt(x, y);
+        putCell(x, y, present ? cell | flag : cell & ~flag);
+    }
+
+    /**
+     * Whether the player can step here
+     */
+    public boolean isWalkable(int x, int y) {
+        if (!inBounds(x, y)) {
+            return false;
+        }
+        int terrain = cellAt(x, y) & TERRAIN_MASK;
+        return terrain != WALL && terrain != VOID;
+    }
+
+    /**
+     * Whether a straight line between two cells crosses only walkable
+     * terrain; the end cells themselves are not checked
+     */
+    public boolean hasLineOfSight(int x0, int y0, int x1, int y1) {
+        // Bresenham's line
+        int dx = Math.abs(x1 - x0);
+        int dy = -Math.abs(y1 - y0);
+        int stepX = x0 < x1 ? 1 : -1;
+        int stepY = y0 < y1 ? 1 : -1;
+        int error = dx + dy;
+        while (true) {
+            int doubled = 2 * error;
+            if (doubled >= dy) {
+                error += dy;
+                x0 += stepX;
+            }
+            if (doubled <= dx) {
+                error += dx;
+                y0 += stepY;
+            }
+            if (x0 == x1 && y0 == y1) {
+                return true;
+            }
+            if (!isWalkable(x0, y0)) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Plain floor with nothing on it and nobody standing there
+     */
+    public boolean isOpenFloor(int x, int y) {
+        if (!inBounds(x, y)) {
+            return false;
+        }
+        return isOpenCell(cellAt(x, y));
+    }
+
+    /**
+     * Map character for the terrain and item at a cell, ignoring occupants
+     */
+    public char glyphAt(int x, int y) {
+        return GLYPHS[cellAt(x, y) & (TERRAIN_MASK | ITEM_MASK)];
+    }
+
+    /**
+     * Copy the glyphs of part of a row into a char buffer
+     */
+    public abstract void copyGlyphs(int x, int y, char[] out, int offset, int length);
+
+    /**
+     * Packed cell for a level file character. 'P' marks the player start and is plain floor.
+     */
+    public static byte cellFor(char tile) {
+        switch (tile) {
+            case '#': return WALL;
+            case '.': case 'P': return FLOOR;
+            case '>': return STAIRS_DOWN;
+            case '<': return STAIRS_UP;
+            case '!': return (byte) (FLOOR | (ITEM << ITEM_SHIFT));
+            case '$': return (byte) (FLOOR | (GOLD << ITEM_SHIFT));
+            default: return VOID;
+        }
+    }
+}
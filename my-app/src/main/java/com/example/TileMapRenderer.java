@@ -0,0 +1,48 @@
+package com.example;
+
+import javax.swing.JComponent;
+import javax.swing.JPanel;
+import javax.swing.JTextArea;
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Font;
+
+/**
+ * Map view that draws tiles on a {@link TileCanvas} with the status text underneath
+ */
+public class TileMapRenderer implements MapView {
+    private final JPanel panel;
+    private final TileCanvas canvas;
+    private final JTextArea statusArea;
+    private String lastStatus = "";
+
+    public TileMapRenderer() {
+        canvas = new TileCanvas();
+
+        statusArea = new JTextArea();
+        statusArea.setFont(new Font("Monospaced", Font.PLAIN, 14));
+        statusArea.setEditable(false);
+        statusArea.setFocusable(false);
+        statusArea.setBackground(Color.BLACK);
+        statusArea.setForeground(Color.WHITE);
+
+        panel = new JPanel(new BorderLayout());
+        panel.setBackground(Color.BLACK);
+        panel.add(canvas, BorderLayout.NORTH);
+        panel.add(statusArea, BorderLayout.CENTER);
+    }
+
+    @Override
+    public JComponent getComponent() {
+        return panel;
+    }
+
+    @Override
+    public void render(char[][] frame, String statusText) {
+        canvas.render(frame);
+        if (!statusText.equals(lastStatus)) {
+            statusArea.setText(statusText);
+            lastStatus = statusText;
+        }
+    }
+}
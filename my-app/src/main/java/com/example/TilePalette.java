@@ -0,0 +1,87 @@
+package com.example;
+
+import java.awt.Color;
+
+/**
+ * Fixed color palette for map tiles, shared by every map renderer
+ */
+public final class TilePalette {
+    public static final int WALL = 0;
+    public static final int FLOOR = 1;
+    public static final int STAIRS_DOWN = 2;
+    public static final int STAIRS_UP = 3;
+    public static final int PLAYER = 4;
+    public static final int ITEM = 5;
+    public static final int GOLD = 6;
+    public static final int MONSTER = 7;
+    public static final int OTHER = 8;
+
+    private static final Color[] COLORS = {
+        Color.YELLOW,     // Wall
+        Color.LIGHT_GRAY, // Floor
+        Color.CYAN,       // Stairs down
+        Color.MAGENTA,    // Stairs up
+        Color.GREEN,      // Player
+        Color.ORANGE,     // Item
+        Color.YELLOW,     // Gold
+        Color.RED,        // Monsters
+        Color.WHITE       // Anything else
+    };
+
+    // ANSI SGR color for each slot, for terminal output
+    private static final String[] ANSI_COLORS = {
+        "33",       // Wall
+        "37",       // Floor
+        "36",       // Stairs down
+        "35",       // Stairs up
+        "32",       // Player
+        "38;5;208", // Item
+        "93",       // Gold
+        "31",       // Monsters
+        "97"        // Anything else
+    };
+
+    private TilePalette() {
+    }
+
+    /**
+     * Number of palette slots
+     */
+    public static int size() {
+        return COLORS.length;
+    }
+
+    /**
+     * Palette slot used to draw the given tile
+     */
+    public static int slotFor(char tile) {
+        switch (tile) {
+            case '#': return WALL;
+            case '.': return FLOOR;
+            case '>': return STAIRS_DOWN;
+            case '<': return STAIRS_UP;
+            case '@': return PLAYER;
+            case '!': return ITEM;
+            case '$': return GOLD;
+            case 'Z': case 'B': case 'H': case 'C': case 'E': case 'A':
+            case 'L': case 'D': case 'K': case 'G': case 'Ω': case 'X':
+                return MONSTER;
+            default: return OTHER;
+        }
+    }
+
+    public static Color colorOf(int slot) {
+        return COLORS[slot];
+    }
+
+    public static Color colorFor(char tile) {
+        return COLORS[slotFor(tile)];
+    }
+
+    /**
+     * ANSI SGR parameters that select the slot's color on a terminal
+     */
+    public static String ansiColorOf(int slot) {
+        return ANSI_COLORS[slot];
+    }
+}
@@ -0,0 +1,136 @@
+package com.example;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Timers that go off on a given turn, kept in a hierarchical timing wheel:
+ * four levels of 64 slots, the lowest with one slot per turn and each level
+ * above 64 times coarser. Scheduling a timer and advancing a turn take
+ * constant time however many timers are pending; a timer far in the future
+ * is only moved again when its coarse slot comes round and it drops to a
+ * finer level.
+ *
+ * Timers cannot be cancelled. Owners recognise the ones that have gone
+ * stale when they fire.
+ */
+public class TimerWheel<T> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 4;
+    private static final int NONE = -1;
+
+    // Each slot is a linked list of entries through next
+    private final int[] heads = new int[LEVELS * SLOTS];
+    private Object[] targets = new Object[64];
+    private int[] dueTurns = new int[64];
+    private int[] next = new int[64];
+    private int freeList = NONE;
+    private int allocated;
+    private int size;
+    private int now;
+
+    public TimerWheel(int startTurn) {
+        this.now = startTurn;
+        Arrays.fill(heads, NONE);
+    }
+
+    public int now() {
+        return now;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Go off for a target on a later turn; turns already reached mean the next one
+     */
+    public void schedule(T target, int dueTurn) {
+        int entry = allocate();
+        targets[entry] = target;
+        dueTurns[entry] = Math.max(dueTurn, now + 1);
+        insert(entry);
+        size++;
+    }
+
+    /**
+     * Move on to a turn, collecting the targets of the timers that went off
+     * on the way, in turn order
+     *
+     * @return the number of targets written to fired, which is cleared first
+     */
+    @SuppressWarnings("unchecked")
+    public int advance(int turn, List<T> fired) {
+        fired.clear();
+        while (now < turn) {
+            now++;
+            // Coarser slots that have come round drop their timers to finer levels
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((now & ((1 << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level * SLOTS + ((now >>> (SLOT_BITS * level)) & (SLOTS - 1)));
+                }
+            }
+            int slot = now & (SLOTS - 1);
+            int entry = heads[slot];
+            heads[slot] = NONE;
+            while (entry != NONE) {
+                int following = next[entry];
+                if (dueTurns[entry] == now) {
+                    fired.add((T) targets[entry]);
+                    release(entry);
+                } else {
+                    insert(entry);
+                }
+                entry = following;
+            }
+        }
+        return fired.size();
+    }
+
+    private void cascade(int slot) {
+        int entry = heads[slot];
+        heads[slot] = NONE;
+        while (entry != NONE) {
+            int following = next[entry];
+            insert(entry);
+            entry = following;
+        }
+    }
+
+    /**
+     * File an entry at the finest level whose range around now covers it
+     */
+    private void insert(int entry) {
+        int due = dueTurns[entry];
+        int level = 0;
+        while (level < LEVELS - 1
+               && (due >>> (SLOT_BITS * (level + 1))) != (now >>> (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = level * SLOTS + ((due >>> (SLOT_BITS * level)) & (SLOTS - 1));
+        next[entry] = heads[slot];
+        heads[slot] = entry;
+    }
+
+    private int allocate() {
+        if (freeList != NONE) {
+            int entry = freeList;
+            freeList = next[entry];
+            return entry;
+        }
+        if (allocated == targets.length) {
+            targets = Arrays.copyOf(targets, allocated * 2);
+            dueTurns = Arrays.copyOf(dueTurns, allocated * 2);
+            next = Arrays.copyOf(next, allocated * 2);
+        }
+        return allocated++;
+    }
+
+    private void release(int entry) {
+        targets[entry] = null;
+        next[entry] = freeList;
+        freeList = entry;
+        size--;
+    }
+}
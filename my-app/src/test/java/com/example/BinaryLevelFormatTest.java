@@ -0,0 +1,82 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryLevelFormatTest {
+    private static final String LEVEL =
+        "LEVEL 3\n" +
+        "#####\n" +
+        "#P.<#\n" +
+        "#!>$#\n" +
+        "#####\n";
+
+    private static LevelData parseText() throws IOException {
+        return LevelLoader.parse(ByteBuffer.wrap(LEVEL.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    void textParserRecordsFeatures() throws IOException {
+        LevelData level = parseText();
+
+        assertEquals(3, level.getLevelNumber());
+        assertEquals(5, level.getGrid().getWidth());
+        assertEquals(4, level.getGrid().getHeight());
+        assertArrayEquals(new int[]{1, 1}, level.getPlayerStart());
+        assertArrayEquals(new int[]{3, 1}, level.getStairsUp());
+        assertArrayEquals(new int[]{2, 2}, level.getStairsDown());
+        assertEquals(4, level.getFloorCount());
+        assertEquals('!', level.getGrid().glyphAt(1, 2));
+    }
+
+    @Test
+    void binaryRoundTripKeepsTilesAndFeatures() throws IOException {
+        LevelData text = parseText();
+        LevelData binary = BinaryLevelFormat.read(BinaryLevelFormat.encode(text, true));
+
+        assertEquals(text.getLevelNumber(), binary.getLevelNumber());
+        assertArrayEquals(text.getGrid().cells(), binary.getGrid().cells());
+        assertArrayEquals(text.getPlayerStart(), binary.getPlayerStart());
+        assertArrayEquals(text.getStairsUp(), binary.getStairsUp());
+        assertArrayEquals(text.getStairsDown(), binary.getStairsDown());
+        assertEquals(text.getFloorCount(), binary.getFloorCount());
+    }
+
+    @Test
+    void corruptedTilesFailTheChecksum() throws IOException {
+        ByteBuffer encoded = BinaryLevelFormat.encode(parseText(), true);
+        int lastTile = encoded.limit() - 5;
+        encoded.put(lastTile, (byte) (encoded.get(lastTile) ^ TileGrid.FLOOR));
+
+        assertTrue(BinaryLevelFormat.isBinary(encoded));
+        assertThrows(IOException.class, () -> BinaryLevelFormat.read(encoded));
+    }
+
+    @Test
+    void truncatedFileIsAnIOException() throws IOException {
+        ByteBuffer encoded = BinaryLevelFormat.encode(parseText(), true);
+        for (int cut = 1; cut <= 8; cut++) {
+            ByteBuffer truncated = encoded.duplicate();
+            truncated.limit(encoded.limit() - cut);
+            assertThrows(IOException.class, () -> BinaryLevelFormat.read(truncated));
+        }
+    }
+
+    @Test
+    void featureOutsideTheLevelIsAnIOException() throws IOException {
+        ByteBuffer encoded = BinaryLevelFormat.encode(parseText(), true);
+        // The first feature's x, after the 26-byte header and its type byte
+        encoded.putInt(27, 5);
+
+        IOException error = assertThrows(IOException.class, () -> BinaryLevelFormat.read(encoded));
+        assertEquals("Feature outside level", error.getMessage());
+    }
+}
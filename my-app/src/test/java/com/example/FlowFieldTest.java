@@ -0,0 +1,44 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FlowFieldTest {
+
+    @Test
+    void leadsAroundAWall() {
+        // A wall across the middle with a gap at the right-hand end
+        String[] rows = {
+            "#########",
+            "#.......#",
+            "######..#",
+            "#.......#",
+            "#########",
+        };
+        TileGrid grid = new FlatTileGrid(9, 5);
+        for (int y = 0; y < rows.length; y++) {
+            for (int x = 0; x < 9; x++) {
+                grid.setTerrain(x, y, rows[y].charAt(x) == '#' ? TileGrid.WALL : TileGrid.FLOOR);
+            }
+        }
+
+        FlowField field = new FlowField(10);
+        field.update(grid, 1, 3);
+        assertEquals(0, field.distanceAt(1, 3));
+        assertEquals(FlowField.UNREACHED, field.distanceAt(0, 0));
+        // Straight down is walled off, so (1,1) goes the long way through the gap
+        assertEquals(10, field.distanceAt(1, 1));
+
+        // Following the steps from (1,1) reaches the target in that many moves
+        int x = 1;
+        int y = 1;
+        for (int step = 0; step < 10; step++) {
+            int direction = field.stepFrom(x, y);
+            x += FlowField.DX[direction];
+            y += FlowField.DY[direction];
+        }
+        assertEquals(1, x);
+        assertEquals(3, y);
+    }
+}
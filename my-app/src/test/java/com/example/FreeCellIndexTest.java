@@ -0,0 +1,49 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FreeCellIndexTest {
+
+    @Test
+    void swapRemoveKeepsMembership() {
+        FreeCellIndex index = new FreeCellIndex(10);
+        for (int cell = 0; cell < 10; cell += 2) {
+            index.add(cell);
+        }
+        assertTrue(index.remove(0));
+        assertFalse(index.remove(0));
+        assertEquals(4, index.size());
+
+        Random random = new Random(1);
+        for (int i = 0; i < 100; i++) {
+            int cell = index.random(random);
+            assertTrue(cell == 2 || cell == 4 || cell == 6 || cell == 8);
+        }
+    }
+
+    @Test
+    void gridKeepsIndexInStepWithChanges() {
+        FlatTileGrid grid = new FlatTileGrid(4, 3);
+        for (int x = 0; x < 4; x++) {
+            grid.setTerrain(x, 1, TileGrid.FLOOR);
+        }
+        FreeCellIndex free = grid.freeCells();
+        assertEquals(4, free.size());
+
+        grid.setItem(0, 1, TileGrid.GOLD);
+        grid.setMonster(1, 1, true);
+        grid.setTerrain(2, 0, TileGrid.FLOOR);
+        assertEquals(3, free.size());
+        assertFalse(free.contains(grid.index(0, 1)));
+        assertTrue(free.contains(grid.index(2, 0)));
+
+        grid.setMonster(1, 1, false);
+        assertTrue(free.contains(grid.index(1, 1)));
+    }
+}
@@ -0,0 +1,50 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class GameRandomTest {
+
+    /**
+     * Name, position and stats of every monster a freshly built level gets
+     */
+    private static List<String> populate(long seed) {
+        GameRandom.reseed(seed);
+        // Draws on the shared streams must not change what the level gets
+        GameRandom.get(GameRandom.Stream.MONSTERS).nextInt(seed % 2 == 0 ? 3 : 5);
+        LevelData level = new LevelGenerator(7, 80, 50).generate(3);
+        Dungeon dungeon = new Dungeon(level);
+        List<String> monsters = new ArrayList<>();
+        for (Monster monster : dungeon.getMonsterManager().getAllMonsters()) {
+            monsters.add(monster.getName() + "@" + monster.getX() + "," + monster.getY()
+                + " hp=" + monster.getHp() + " attack=" + monster.getAttackPower());
+        }
+        return monsters;
+    }
+
+    @Test
+    void aSeedReproducesALevel() {
+        List<String> first = populate(42);
+        assertEquals(first, populate(42));
+        assertFalse(first.isEmpty());
+    }
+
+    @Test
+    void aSeedReproducesCombatRolls() {
+        Monster monster = new Monster("Rat", "Beast", 0, 0, 5, 6, 0, 1, 'r', true);
+        GameRandom.reseed(9);
+        List<Integer> rolls = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            rolls.add(monster.calculateAttackDamage());
+        }
+        GameRandom.reseed(9);
+        for (int i = 0; i < 20; i++) {
+            assertEquals(rolls.get(i), monster.calculateAttackDamage());
+        }
+    }
+}
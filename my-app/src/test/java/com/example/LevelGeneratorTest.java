@@ -0,0 +1,79 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LevelGeneratorTest {
+    private static final long SEED = 1234;
+
+    @Test
+    void sameSeedGivesSameFloorsOnAnyThreadCount() {
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool many = new ForkJoinPool(4);
+        try {
+            List<LevelData> sequential = new LevelGenerator(SEED, 200, 120, single).generateFloors(1, 6);
+            List<LevelData> parallel = new LevelGenerator(SEED, 200, 120, many).generateFloors(1, 6);
+
+            for (int i = 0; i < sequential.size(); i++) {
+                assertArrayEquals(sequential.get(i).getGrid().cells(), parallel.get(i).getGrid().cells());
+                assertArrayEquals(sequential.get(i).getStairsDown(), parallel.get(i).getStairsDown());
+            }
+            assertArrayEquals(sequential.get(2).getGrid().cells(),
+                              new LevelGenerator(SEED, 200, 120, many).generate(3).getGrid().cells());
+        } finally {
+            single.shutdown();
+            many.shutdown();
+        }
+    }
+
+    @Test
+    void stairsDownCanBeReachedFromTheStart() {
+        LevelData level = new LevelGenerator(SEED, 120, 60).generate(2);
+        FlatTileGrid grid = level.getGrid();
+        int[] start = level.getPlayerStart();
+
+        boolean[] seen = new boolean[grid.getWidth() * grid.getHeight()];
+        ArrayDeque<int[]> queue = new ArrayDeque<>();
+        queue.add(start);
+        seen[grid.index(start[0], start[1])] = true;
+        int reached = 0;
+        while (!queue.isEmpty()) {
+            int[] cell = queue.poll();
+            reached++;
+            int[][] steps = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+            for (int[] step : steps) {
+                int x = cell[0] + step[0];
+                int y = cell[1] + step[1];
+                if (grid.isWalkable(x, y) && !seen[grid.index(x, y)]) {
+                    seen[grid.index(x, y)] = true;
+                    queue.add(new int[]{x, y});
+                }
+            }
+        }
+
+        int[] down = level.getStairsDown();
+        assertTrue(seen[grid.index(down[0], down[1])]);
+        assertEquals(level.getFloorCount() + 2, reached);   // Every floor cell plus both stairs
+    }
+
+    @Test
+    void smallestLevelsStillStartAwayFromTheStairs() {
+        for (int level = 1; level <= 3; level++) {
+            LevelData data = new LevelGenerator(SEED + level, LevelGenerator.MIN_SIZE, 10).generate(level);
+            assertFalse(Arrays.equals(data.getPlayerStart(), data.getStairsDown()));
+        }
+        // Too small to split: there would be one room for both
+        assertThrows(IllegalArgumentException.class,
+                     () -> new LevelGenerator(SEED, LevelGenerator.MIN_SIZE - 1, LevelGenerator.MIN_SIZE - 1));
+    }
+}
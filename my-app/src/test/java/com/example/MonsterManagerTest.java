@@ -0,0 +1,166 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MonsterManagerTest {
+
+    /**
+     * A dungeon on a level with hostile rats dropped on random open floor
+     */
+    private static Dungeon ratsOn(LevelData level, int count, long seed) {
+        FlatTileGrid grid = level.getGrid();
+        FreeCellIndex floor = grid.freeCells();
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Monster> monsters = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int cell = floor.random(random);
+            monsters.add(new Monster("Rat", "beast", grid.xOf(cell), grid.yOf(cell), 5, 1, 0, 1, 'r', true));
+            grid.setMonster(grid.xOf(cell), grid.yOf(cell), true);
+        }
+        return new Dungeon(level, monsters, false);
+    }
+
+    /**
+     * A level that is a three-cell-high corridor, starting the player at (2, 2)
+     */
+    private static LevelData corridor(int width) {
+        FlatTileGrid grid = new FlatTileGrid(width, 5);
+        for (int x = 0; x < width; x++) {
+            for (int y = 1; y < 4; y++) {
+                grid.setTerrain(x, y, TileGrid.FLOOR);
+            }
+        }
+        return new LevelData(1, grid, null, null, new int[]{2, 2}, 3 * width);
+    }
+
+    /**
+     * Monster positions after some turns of two-phase updates on a pool of the given size
+     */
+    private static List<Long> positionsAfterTurns(int threads) {
+        LevelData level = new LevelGenerator(9, 120, 80).generate(2);
+        Dungeon dungeon = ratsOn(level, 1500, 4);
+
+        Player player = new Player(level.getPlayerStart(), level.getGrid(), dungeon);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        dungeon.getMonsterManager().setParallel(pool, 0);
+        for (int turn = 0; turn < 30; turn++) {
+            dungeon.updateMonsters(player);
+        }
+        pool.shutdown();
+
+        List<Long> positions = new ArrayList<>();
+        Set<Long> occupied = new HashSet<>();
+        for (Monster monster : dungeon.getMonsterManager().getAllMonsters()) {
+            long position = ((long) monster.getX() << 32) | monster.getY();
+            positions.add(position);
+            occupied.add(position);
+        }
+        assertEquals(positions.size(), occupied.size(), "No two monsters may end up on one cell");
+        return positions;
+    }
+
+    @Test
+    void twoPhaseTurnsDoNotDependOnThreadCount() {
+        assertEquals(positionsAfterTurns(1), positionsAfterTurns(4));
+    }
+
+    /**
+     * Monster positions, then the player's hp, after some turns with a small
+     * activity radius, deciding in parallel from the given population
+     */
+    private static List<Long> activeNearThePlayer(int parallelThreshold) {
+        LevelData level = new LevelGenerator(5, 120, 80).generate(1);
+        Dungeon dungeon = ratsOn(level, 800, 8);
+        MonsterManager manager = dungeon.getMonsterManager();
+        List<Monster> monsters = new ArrayList<>(manager.getAllMonsters());
+        manager.setActivityRadius(6);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        manager.setParallel(pool, parallelThreshold);
+
+        Player player = new Player(level.getPlayerStart(), level.getGrid(), dungeon);
+        int[] startX = new int[monsters.size()];
+        int[] startY = new int[monsters.size()];
+        for (int turn = 0; turn < 20; turn++) {
+            for (int i = 0; i < monsters.size(); i++) {
+                startX[i] = monsters.get(i).getX();
+                startY[i] = monsters.get(i).getY();
+            }
+            dungeon.updateMonsters(player);
+            for (int i = 0; i < monsters.size(); i++) {
+                Monster monster = monsters.get(i);
+                assertTrue(Math.abs(monster.getX() - startX[i]) <= 1 && Math.abs(monster.getY() - startY[i]) <= 1,
+                           "A monster moves at most one cell a turn");
+            }
+        }
+        pool.shutdown();
+
+        List<Long> outcome = new ArrayList<>();
+        for (Monster monster : monsters) {
+            outcome.add(((long) monster.getX() << 32) | monster.getY());
+        }
+        outcome.add((long) player.getHp());
+        return outcome;
+    }
+
+    @Test
+    void parallelDecisionsMatchSerialWhenOnlySomeAreActive() {
+        // Far fewer monsters are near the player than on the level, so the
+        // due list and the full list differ at every index
+        assertEquals(activeNearThePlayer(Integer.MAX_VALUE), activeNearThePlayer(0));
+    }
+
+    @Test
+    void dormantMonstersCatchUpWhenTheyWake() {
+        LevelData level = corridor(200);
+        Monster sleeper = new Monster("Rat", "beast", 150, 2, 20, 1, 0, 1, 'r', false);
+        sleeper.applyStatus("poisoned", 5);
+        List<Monster> monsters = new ArrayList<>();
+        monsters.add(sleeper);
+        Dungeon dungeon = new Dungeon(level, monsters, false);
+        dungeon.getMonsterManager().setActivityRadius(5);
+
+        Player player = new Player(level.getPlayerStart(), level.getGrid(), dungeon);
+        for (int turn = 0; turn < 10; turn++) {
+            dungeon.updateMonsters(player);
+        }
+        assertEquals(20, sleeper.getHp());
+        assertEquals(5, sleeper.getStatusDuration());
+
+        // Waking up applies all five poison ticks at once
+        player.setPosition(147, 2);
+        dungeon.updateMonsters(player);
+        assertEquals(15, sleeper.getHp());
+        assertEquals("normal", sleeper.getStatusEffect());
+    }
+
+    @Test
+    void speedSetsHowOftenMonstersAct() {
+        LevelData level = corridor(40);
+        Monster fast = new Monster("Bat", "beast", 30, 1, 5, 1, 0, 1, 'b', true);
+        fast.setSpeed(2 * Actor.NORMAL_SPEED);
+        Monster slow = new Monster("Golem", "construct", 30, 3, 5, 1, 0, 1, 'g', true);
+        slow.setSpeed(Actor.NORMAL_SPEED / 2);
+        List<Monster> monsters = new ArrayList<>();
+        monsters.add(fast);
+        monsters.add(slow);
+        Dungeon dungeon = new Dungeon(level, monsters, false);
+
+        Player player = new Player(level.getPlayerStart(), level.getGrid(), dungeon);
+        for (int turn = 0; turn < 4; turn++) {
+            dungeon.updateMonsters(player);
+        }
+        // Each action is one step down the corridor
+        assertEquals(22, fast.getX());
+        assertEquals(28, slow.getX());
+    }
+}
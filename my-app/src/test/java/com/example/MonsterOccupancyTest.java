@@ -0,0 +1,116 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MonsterOccupancyTest {
+
+    private static int distance(Monster monster, int x, int y) {
+        return Math.max(Math.abs(monster.getX() - x), Math.abs(monster.getY() - y));
+    }
+
+    @Test
+    void queriesMatchScanningEveryMonster() {
+        TileGrid grid = new FlatTileGrid(100, 60);
+        MonsterOccupancy occupancy = new MonsterOccupancy(grid);
+        Random random = new Random(5);
+        List<Monster> all = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            int x = random.nextInt(100);
+            int y = random.nextInt(60);
+            if (occupancy.monsterAt(x, y) == null) {
+                Monster monster = MonsterFactory.createForLevel(1, x, y);
+                occupancy.add(monster);
+                all.add(monster);
+            }
+        }
+        // Move some monsters across bucket boundaries after they were filed
+        for (Monster monster : all) {
+            int x = Math.min(99, monster.getX() + 9);
+            if (occupancy.monsterAt(x, monster.getY()) == null) {
+                monster.setPosition(x, monster.getY());
+            }
+        }
+
+        List<Monster> found = new ArrayList<>();
+        for (int query = 0; query < 50; query++) {
+            int x = random.nextInt(100);
+            int y = random.nextInt(60);
+            int radius = random.nextInt(20);
+
+            occupancy.withinRadius(x, y, radius, found);
+            HashSet<Monster> expected = new HashSet<>();
+            for (Monster monster : all) {
+                if (distance(monster, x, y) <= radius) {
+                    expected.add(monster);
+                }
+            }
+            assertEquals(expected, new HashSet<>(found));
+
+            int k = 1 + random.nextInt(10);
+            occupancy.nearest(x, y, k, 1000, found);
+            List<Integer> distances = new ArrayList<>();
+            for (Monster monster : all) {
+                distances.add(distance(monster, x, y));
+            }
+            distances.sort(null);
+            assertEquals(k, found.size());
+            for (int i = 0; i < k; i++) {
+                assertEquals(distances.get(i), distance(found.get(i), x, y));
+            }
+        }
+    }
+
+    @Test
+    void movesAndRemovalsUpdateTheCell() {
+        TileGrid grid = new FlatTileGrid(20, 20);
+        MonsterOccupancy occupancy = new MonsterOccupancy(grid);
+        Monster monster = MonsterFactory.createForLevel(1, 3, 3);
+        occupancy.add(monster);
+        assertTrue(grid.hasMonster(3, 3));
+
+        monster.setPosition(12, 4);
+        assertSame(monster, occupancy.monsterAt(12, 4));
+        assertEquals(null, occupancy.monsterAt(3, 3));
+
+        occupancy.remove(monster);
+        assertEquals(null, occupancy.monsterAt(12, 4));
+        List<Monster> found = new ArrayList<>();
+        assertEquals(0, occupancy.within(0, 0, 20, 20, found));
+    }
+
+    @Test
+    void emptySparseBucketsAreDropped() {
+        Map<Long, byte[]> chunks = new HashMap<>();
+        TileGrid grid = new ChunkedTileGrid(4, 4, (chunkX, chunkY) ->
+            chunks.computeIfAbsent(ChunkedTileGrid.key(chunkX, chunkY), key -> {
+                byte[] cells = new byte[ChunkedTileGrid.CHUNK_CELLS];
+                Arrays.fill(cells, (byte) TileGrid.FLOOR);
+                return cells;
+            }));
+        MonsterOccupancy occupancy = new MonsterOccupancy(grid);
+        Monster monster = MonsterFactory.createForLevel(1, 1, 1);
+        occupancy.add(monster);
+
+        // Walk across many buckets; only the one it stands in stays allocated
+        for (int x = 2; x < 200; x++) {
+            monster.setPosition(x, 1);
+        }
+        assertEquals(1, occupancy.bucketCount());
+        assertSame(monster, occupancy.monsterAt(199, 1));
+
+        occupancy.remove(monster);
+        assertEquals(0, occupancy.bucketCount());
+    }
+}
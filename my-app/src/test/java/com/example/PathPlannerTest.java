@@ -0,0 +1,79 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PathPlannerTest {
+
+    private static void assertWalkablePath(FlatTileGrid grid, int x, int y, int[] path, int goalX, int goalY) {
+        for (int cell : path) {
+            int nx = grid.xOf(cell);
+            int ny = grid.yOf(cell);
+            assertTrue(Math.max(Math.abs(nx - x), Math.abs(ny - y)) == 1, "Steps must be to a neighbouring cell");
+            assertTrue(grid.isWalkable(nx, ny));
+            x = nx;
+            y = ny;
+        }
+        assertEquals(goalX, x);
+        assertEquals(goalY, y);
+    }
+
+    @Test
+    void pathsAreValidAndCloseToTheShortest() {
+        FlatTileGrid grid = new LevelGenerator(11, 200, 150).generate(1).getGrid();
+        PathPlanner planner = new PathPlanner(grid, 16);
+        FreeCellIndex floor = grid.freeCells();
+        SplittableRandom random = new SplittableRandom(3);
+
+        long hierarchical = 0;
+        long shortest = 0;
+        for (int i = 0; i < 100; i++) {
+            int start = floor.random(random);
+            int goal = floor.random(random);
+            int sx = grid.xOf(start);
+            int sy = grid.yOf(start);
+            int gx = grid.xOf(goal);
+            int gy = grid.yOf(goal);
+
+            int[] direct = planner.findPathDirect(sx, sy, gx, gy);
+            int[] path = planner.findPath(sx, sy, gx, gy);
+            assertNotNull(direct);
+            assertNotNull(path);
+            assertWalkablePath(grid, sx, sy, path, gx, gy);
+            assertTrue(path.length >= direct.length);
+            if (path.length > 0) {
+                assertEquals(path[0], planner.nextStep(sx, sy, gx, gy));
+            }
+            hierarchical += path.length;
+            shortest += direct.length;
+        }
+        assertTrue(hierarchical <= shortest * 11 / 10, "Paths should be within 10% of the shortest overall");
+    }
+
+    @Test
+    void terrainChangesAreSeen() {
+        // Two rooms joined by a single doorway on a cluster border
+        FlatTileGrid grid = new FlatTileGrid(32, 8);
+        for (int y = 1; y < 7; y++) {
+            for (int x = 1; x < 31; x++) {
+                grid.setTerrain(x, y, x == 16 && y != 4 ? TileGrid.WALL : TileGrid.FLOOR);
+            }
+        }
+        PathPlanner planner = new PathPlanner(grid, 16);
+        assertNotNull(planner.findPath(2, 2, 29, 5));
+
+        grid.setTerrain(16, 4, TileGrid.WALL);
+        assertNull(planner.findPath(2, 2, 29, 5));
+
+        grid.setTerrain(16, 6, TileGrid.FLOOR);
+        int[] path = planner.findPath(2, 2, 29, 5);
+        assertNotNull(path);
+        assertWalkablePath(grid, 2, 2, path, 29, 5);
+    }
+}
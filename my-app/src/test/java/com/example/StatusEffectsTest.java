@@ -0,0 +1,43 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatusEffectsTest {
+
+    @Test
+    void effectsStackAndRunOutSeparately() {
+        StatusEffects effects = new StatusEffects();
+        effects.apply(StatusEffect.POISONED, 4);
+        effects.apply(StatusEffect.POISONED, 2);
+        effects.apply(StatusEffect.BURNING, 2);
+        effects.apply(StatusEffect.STUNNED, 1);
+        assertEquals(2, effects.stacks(StatusEffect.POISONED));
+        assertEquals(4, effects.remaining(StatusEffect.POISONED));
+        assertEquals(1, effects.turnsUntilExpiry());
+
+        // Poison x2 and burning each hurt every turn
+        assertEquals(4, effects.tick(1, 0));
+        assertTrue(effects.expired(StatusEffect.STUNNED));
+        assertFalse(effects.has(StatusEffect.STUNNED));
+
+        // Burning runs out after one more turn, poison after three
+        assertEquals(2 + 3 * 2, effects.tick(5, 0));
+        assertTrue(effects.isEmpty());
+        assertEquals("normal", effects.describe());
+    }
+
+    @Test
+    void resistanceHalvesLaterEffects() {
+        StatusEffects effects = new StatusEffects();
+        effects.apply(StatusEffect.RESISTANT, StatusEffects.PERMANENT);
+        effects.apply(StatusEffect.WEAKENED, 6);
+        assertEquals(3, effects.remaining(StatusEffect.WEAKENED));
+        effects.tick(100, 0);
+        assertTrue(effects.has(StatusEffect.RESISTANT));
+        assertFalse(effects.has(StatusEffect.WEAKENED));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimerWheelTest {
+
+    @Test
+    void everyTimerFiresOnItsTurn() {
+        TimerWheel<Integer> wheel = new TimerWheel<>(0);
+        Random random = new Random(3);
+        int[] due = new int[2000];
+        for (int i = 0; i < due.length; i++) {
+            // Spread over all levels, including turns past the top one
+            due[i] = 1 + random.nextInt(1 << (6 + random.nextInt(20)));
+            wheel.schedule(i, due[i]);
+        }
+
+        List<Integer> fired = new ArrayList<>();
+        int count = 0;
+        int turn = 0;
+        while (count < due.length) {
+            int from = turn;
+            turn += 1 + random.nextInt(5000);
+            wheel.advance(turn, fired);
+            int last = from;
+            for (int timer : fired) {
+                assertTrue(due[timer] > from && due[timer] <= turn, "Timer " + timer + " fired early or late");
+                assertTrue(due[timer] >= last, "Timers fire in turn order");
+                last = due[timer];
+            }
+            count += fired.size();
+        }
+        assertEquals(due.length, count);
+        assertEquals(0, wheel.size());
+    }
+}